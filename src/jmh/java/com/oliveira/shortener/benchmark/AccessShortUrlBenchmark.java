@@ -0,0 +1,113 @@
+package com.oliveira.shortener.benchmark;
+
+import com.oliveira.shortener.ShortenerApplication;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.services.ShortKeyFilter;
+import com.oliveira.shortener.domain.services.ShortUrlService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full {@link ShortUrlService#accessShortUrl} path against an in-memory H2 database seeded with
+ * {@code rows} short urls (every tenth one private to its owner), with and without the redirect cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AccessShortUrlBenchmark {
+    private static final int KEY_SAMPLE = 1 << 14;
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean redirectCache;
+
+    private ConfigurableApplicationContext context;
+    private ShortUrlService shortUrlService;
+    private String[] existingKeys;
+    private String[] missingKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = new SpringApplicationBuilder(ShortenerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "INIT=CREATE SEQUENCE IF NOT EXISTS short_urls_id_seq START WITH 1000",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.flyway.locations=classpath:db/migration,classpath:db/benchmark",
+                        "--spring.flyway.placeholders.rows=" + rows,
+                        "--app.redirect-cache.enabled=" + redirectCache,
+                        "--app.analytics.log-enabled=false",
+                        "--app.expiry.reaper-enabled=false",
+                        "--logging.level.root=WARN");
+        shortUrlService = context.getBean(ShortUrlService.class);
+        ShortKeyFilter shortKeyFilter = context.getBean(ShortKeyFilter.class);
+        while (shortKeyFilter.stats().enabled() && !shortKeyFilter.stats().ready()) {
+            Thread.sleep(50);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        existingKeys = new String[KEY_SAMPLE];
+        missingKeys = new String[KEY_SAMPLE];
+        for (int i = 0; i < KEY_SAMPLE; i++) {
+            existingKeys[i] = "b" + (1 + random.nextInt(rows));
+            missingKeys[i] = "m" + random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            return next++ & (KEY_SAMPLE - 1);
+        }
+    }
+
+    @Benchmark
+    public Optional<RedirectEntry> existingKey(Cursor cursor) {
+        return shortUrlService.accessShortUrl(existingKeys[cursor.next()], null);
+    }
+
+    @Benchmark
+    public Optional<RedirectEntry> missingKey(Cursor cursor) {
+        return shortUrlService.accessShortUrl(missingKeys[cursor.next()], null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<RedirectEntry> existingKeyConcurrent(Cursor cursor) {
+        return shortUrlService.accessShortUrl(existingKeys[cursor.next()], null);
+    }
+}
@@ -0,0 +1,98 @@
+package com.oliveira.shortener.benchmark;
+
+import com.oliveira.shortener.domain.entities.ShortUrl;
+import com.oliveira.shortener.domain.entities.User;
+import com.oliveira.shortener.domain.models.PagedResult;
+import com.oliveira.shortener.domain.models.ShortUrlDto;
+import com.oliveira.shortener.domain.services.EntityMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and page wrapping as done for every listing request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private final EntityMapper entityMapper = new EntityMapper();
+    private ShortUrl withOwner;
+    private ShortUrl anonymous;
+    private List<ShortUrl> entities;
+    private Page<ShortUrlDto> dtoPage;
+
+    @Setup
+    public void setUp() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("Administrator");
+        withOwner = shortUrl(1, owner);
+        anonymous = shortUrl(2, null);
+        entities = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            entities.add(shortUrl(i, i % 2 == 0 ? owner : null));
+        }
+        dtoPage = new PageImpl<>(entities.stream().map(entityMapper::toShortUrlDto).toList(),
+                PageRequest.of(3, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")), 100_000);
+    }
+
+    @Benchmark
+    public ShortUrlDto toShortUrlDtoWithOwner() {
+        return entityMapper.toShortUrlDto(withOwner);
+    }
+
+    @Benchmark
+    public ShortUrlDto toShortUrlDtoAnonymous() {
+        return entityMapper.toShortUrlDto(anonymous);
+    }
+
+    @Benchmark
+    public PagedResult<ShortUrlDto> pagedResultFrom() {
+        return PagedResult.from(dtoPage);
+    }
+
+    @Benchmark
+    public PagedResult<ShortUrlDto> mapAndWrapPage() {
+        Page<ShortUrl> page = new PageImpl<>(entities, dtoPage.getPageable(), dtoPage.getTotalElements());
+        return PagedResult.from(page.map(entityMapper::toShortUrlDto));
+    }
+
+    private static ShortUrl shortUrl(long id, User owner) {
+        ShortUrl shortUrl = new ShortUrl();
+        shortUrl.setId(id);
+        shortUrl.setShortKey("b" + Long.toString(id, 36));
+        shortUrl.setOriginalUrl("https://www.sivalabs.in/code-offline-with-local-ai-ollama?ref=" + id);
+        shortUrl.setIsPrivate(false);
+        shortUrl.setExpiresAt(Instant.now().plus(30, ChronoUnit.DAYS));
+        shortUrl.setCreatedBy(owner);
+        shortUrl.setClickCount(id);
+        shortUrl.setCreatedAt(Instant.now());
+        return shortUrl;
+    }
+}
@@ -0,0 +1,130 @@
+package com.oliveira.shortener.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oliveira.shortener.domain.compact.CompactRedirectTable;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.services.ShortKeyCodec;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Heap taken by the same redirect entries held as objects in a Caffeine cache (configured like the redirect
+ * cache) and in a {@link CompactRedirectTable}, each measured as the growth of the used heap after a full GC
+ * while it was built. Results go to {@code target/footprint-report.json} and the GC log of the run, to check
+ * that each measurement follows a full collection, to {@code target/footprint-gc.log}:
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec@footprint-report -Dbenchmark.args="entries=1000000 hosts=1000"
+ * </pre>
+ */
+public class RedirectFootprintReport {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected name=value, got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int entries = Integer.parseInt(options.getOrDefault("entries", "1000000"));
+        int hosts = Integer.parseInt(options.getOrDefault("hosts", "1000"));
+        Duration timeToLive = Duration.ofMinutes(10);
+
+        RedirectEntry[] sample = sample(entries, hosts);
+        long urlBytes = 0;
+        long withOwner = 0;
+        long withExpiry = 0;
+        for (RedirectEntry entry : sample) {
+            urlBytes += entry.originalUrl().length();
+            withOwner += entry.ownerId() != null ? 1 : 0;
+            withExpiry += entry.expiresAt() != null ? 1 : 0;
+        }
+
+        // both structures stay alive to the end, each measured as the growth of the heap while it was built;
+        // the sample stays reachable throughout, so the cache gets copies that share nothing with it
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedAfterGc(memory);
+        CompactRedirectTable table = new CompactRedirectTable(entries, timeToLive);
+        for (RedirectEntry entry : sample) {
+            table.put(entry);
+        }
+        long withTable = usedAfterGc(memory);
+        Cache<String, RedirectEntry> cache = Caffeine.newBuilder()
+                .maximumSize(entries)
+                .expireAfterWrite(timeToLive)
+                .executor(Runnable::run)
+                .build();
+        for (RedirectEntry entry : sample) {
+            RedirectEntry copy = copy(entry);
+            cache.put(copy.shortKey(), copy);
+        }
+        cache.cleanUp();
+        long withCache = usedAfterGc(memory);
+        long compact = withTable - baseline;
+        long objects = withCache - withTable;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("entries", entries);
+        report.put("hosts", hosts);
+        report.put("averageUrlLength", urlBytes / entries);
+        report.put("objectGraphBytes", objects);
+        report.put("objectGraphBytesPerEntry", objects / entries);
+        report.put("objectGraphEstimateBytes",
+                CompactRedirectTable.estimateObjectGraphBytes(entries, urlBytes, withOwner, withExpiry));
+        report.put("compactBytes", compact);
+        report.put("compactBytesPerEntry", compact / entries);
+        report.put("compactFootprintBytes", table.footprintBytes());
+        report.put("ratio", (double) objects / compact);
+        Reference.reachabilityFence(sample);
+        Reference.reachabilityFence(table);
+        Reference.reachabilityFence(cache);
+        System.out.println(report);
+        Path output = Path.of("target", "footprint-report.json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static RedirectEntry[] sample(int entries, int hosts) {
+        SplittableRandom random = new SplittableRandom(42);
+        ShortKeyCodec codec = new ShortKeyCodec(6700417L);
+        RedirectEntry[] sample = new RedirectEntry[entries];
+        Instant now = Instant.now();
+        for (int i = 0; i < entries; i++) {
+            String url = "https://www.site" + random.nextInt(hosts) + ".example.com/articles/"
+                    + Long.toHexString(random.nextLong()) + "?utm_source=share&id=" + i;
+            sample[i] = new RedirectEntry((long) i + 1000, codec.encode(i + 1000), url,
+                    random.nextBoolean() ? now.plus(Duration.ofDays(30)) : null,
+                    random.nextInt(10) == 0,
+                    random.nextInt(3) == 0 ? (long) random.nextInt(100_000) + 1000 : null);
+        }
+        return sample;
+    }
+
+    private static RedirectEntry copy(RedirectEntry entry) {
+        // new String(String) would share the array
+        return new RedirectEntry(Long.valueOf(entry.id()), new String(entry.shortKey().toCharArray()),
+                new String(entry.originalUrl().toCharArray()),
+                entry.expiresAt() != null ? Instant.ofEpochSecond(entry.expiresAt().getEpochSecond()) : null,
+                entry.isPrivate(), entry.ownerId() != null ? Long.valueOf(entry.ownerId()) : null);
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
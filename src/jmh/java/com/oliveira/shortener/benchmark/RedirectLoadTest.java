@@ -0,0 +1,238 @@
+package com.oliveira.shortener.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oliveira.shortener.ShortenerApplication;
+import com.oliveira.shortener.domain.services.ShortKeyFilter;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of {@code GET /s/{key}} with Tomcat on platform threads and then on virtual threads.
+ * The redirect cache is off and every query pays an injected latency, so the run measures how each
+ * threading model behaves while requests are parked on the database. Results go to
+ * {@code target/load-test-result.json}:
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec@load-test -Dbenchmark.args="clients=1000 db-latency=20ms pool-size=50"
+ * </pre>
+ * Add {@code -Djdk.tracePinnedThreads=full} to the JVM to print any carrier pinning during the virtual run.
+ */
+public class RedirectLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        // devtools would restart the application in its own class loader on every start
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> options = parse(args);
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "500"));
+        int poolSize = Integer.parseInt(options.getOrDefault("pool-size", "50"));
+        Duration dbLatency = DurationStyle.detectAndParse(options.getOrDefault("db-latency", "10ms"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtualThreads, rows, poolSize, dbLatency)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                run(port, rows, clients, warmup);
+                Result result = run(port, rows, clients, duration);
+                Map<String, Object> summary = new LinkedHashMap<>();
+                summary.put("virtualThreads", virtualThreads);
+                summary.put("clients", clients);
+                summary.put("poolSize", poolSize);
+                summary.put("dbLatencyMillis", dbLatency.toMillis());
+                summary.put("requests", result.requests());
+                summary.put("errors", result.errors());
+                summary.put("throughputPerSecond", result.requests() / (double) duration.toSeconds());
+                summary.put("p50Millis", result.percentileMillis(0.50));
+                summary.put("p99Millis", result.percentileMillis(0.99));
+                summary.put("maxMillis", result.percentileMillis(1.0));
+                System.out.println(summary);
+                results.add(summary);
+            }
+        }
+        Path output = Path.of("target", "load-test-result.json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads, int rows, int poolSize, Duration dbLatency)
+            throws InterruptedException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShortenerApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new LatencyInjector(dbLatency)))
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest-" + virtualThreads + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+                                + "INIT=CREATE SEQUENCE IF NOT EXISTS short_urls_id_seq START WITH 1000",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        // behind the proxy Boot no longer sees Flyway managing the embedded database and would default to create-drop
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.flyway.locations=classpath:db/migration,classpath:db/benchmark",
+                        "--spring.flyway.placeholders.rows=" + rows,
+                        "--app.redirect-cache.enabled=false",
+                        "--app.analytics.log-enabled=false",
+                        "--app.expiry.reaper-enabled=false",
+                        "--logging.level.root=WARN");
+        ShortKeyFilter shortKeyFilter = context.getBean(ShortKeyFilter.class);
+        while (shortKeyFilter.stats().enabled() && !shortKeyFilter.stats().ready()) {
+            Thread.sleep(50);
+        }
+        return context;
+    }
+
+    private static Result run(int port, int rows, int clients, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                SplittableRandom random = new SplittableRandom(i);
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        // every tenth seeded row is private, so stick to the public ones
+                        int row = 1 + random.nextInt(rows);
+                        if (row % 10 == 0) {
+                            row--;
+                        }
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/s/b" + row))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() / 100 != 3) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        List<long[]> all = new ArrayList<>(clients);
+        for (Future<long[]> worker : workers) {
+            all.add(worker.get());
+        }
+        long[] latencies = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(latencies, errors.get());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected name=value, got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private record Result(long[] latencies, long errors) {
+        long requests() {
+            return latencies.length;
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Wraps the pooled {@link DataSource} so every prepared query sleeps for a fixed time before running,
+     * standing in for the round trip to a remote database that an in-memory H2 does not have.
+     */
+    private record LatencyInjector(Duration latency) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !latency.isZero()) {
+                return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                    Object result = method.invoke(target, args);
+                    return result instanceof Connection connection ? proxy(Connection.class, connection, this::connection) : result;
+                });
+            }
+            return bean;
+        }
+
+        private Object connection(Object target, Method method, Object[] args) throws Throwable {
+            Object result = method.invoke(target, args);
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement, (stmt, m, a) -> {
+                    if (m.getName().equals("executeQuery")) {
+                        Thread.sleep(latency);
+                    }
+                    return m.invoke(stmt, a);
+                });
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Handler handler) {
+            InvocationHandler invocationHandler = (p, method, args) -> {
+                try {
+                    return handler.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(RedirectLoadTest.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+        }
+
+        @FunctionalInterface
+        private interface Handler {
+            Object invoke(Object target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
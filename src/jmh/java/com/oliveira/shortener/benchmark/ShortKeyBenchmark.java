@@ -0,0 +1,77 @@
+package com.oliveira.shortener.benchmark;
+
+import com.oliveira.shortener.domain.repository.ShortKeyBlockRepository;
+import com.oliveira.shortener.domain.services.BlockLeasedShortKeyGenerator;
+import com.oliveira.shortener.domain.services.RandomShortKeyGenerator;
+import com.oliveira.shortener.domain.services.ShortKeyCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Key generation without the database: the random strategy's key builder (without its existence probe),
+ * the counter codec, and the block-leased generator with an in-memory block sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortKeyBenchmark {
+
+    private ShortKeyCodec codec;
+    private BlockLeasedShortKeyGenerator blockLeasedGenerator;
+    private long counter;
+
+    @Setup
+    public void setUp() {
+        codec = new ShortKeyCodec(6700417L);
+        blockLeasedGenerator = new BlockLeasedShortKeyGenerator(new InMemoryBlockRepository(), codec, 1000);
+    }
+
+    @Benchmark
+    public String randomShortKey() {
+        return RandomShortKeyGenerator.generateRandomShortKey();
+    }
+
+    @Benchmark
+    public String codecEncode() {
+        return codec.encode(counter++);
+    }
+
+    @Benchmark
+    public String blockLeasedNextKey() {
+        return blockLeasedGenerator.nextKey();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String blockLeasedNextKeyContended() {
+        return blockLeasedGenerator.nextKey();
+    }
+
+    private static final class InMemoryBlockRepository extends ShortKeyBlockRepository {
+        private final AtomicLong sequence = new AtomicLong();
+
+        private InMemoryBlockRepository() {
+            super(null);
+        }
+
+        @Override
+        public long nextBlockNumber() {
+            return sequence.incrementAndGet();
+        }
+    }
+}
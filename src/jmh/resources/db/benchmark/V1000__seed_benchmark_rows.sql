@@ -0,0 +1,5 @@
+-- H2 only; SYSTEM_RANGE exposes its value as the upper-case column "X"
+INSERT INTO short_urls (short_key, original_url, created_by, created_at, expires_at, is_private, click_count)
+SELECT 'b' || "X", 'https://www.sivalabs.in/code-offline-with-local-ai-ollama?ref=' || "X", 1 + MOD("X", 2),
+       DATEADD('SECOND', "X", TIMESTAMP '2024-01-01'), NULL, MOD("X", 10) = 0, 0
+FROM SYSTEM_RANGE(1, ${rows});
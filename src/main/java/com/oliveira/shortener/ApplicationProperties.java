@@ -1,12 +1,20 @@
 package com.oliveira.shortener;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "app")
 @Validated
 public record ApplicationProperties(
@@ -20,6 +28,362 @@ public record ApplicationProperties(
         @DefaultValue("true")
         boolean validateOriginalUrl,
         @DefaultValue("10")
-        int pageSize
+        int pageSize,
+        @Valid
+        @DefaultValue
+        RedirectCache redirectCache,
+        @Valid
+        @DefaultValue
+        ClickCounter clickCounter,
+        @Valid
+        @DefaultValue
+        ShortKey shortKey,
+        @Valid
+        @DefaultValue
+        UrlValidation urlValidation,
+        @Valid
+        @DefaultValue
+        Pagination pagination,
+        @Valid
+        @DefaultValue
+        Redirect redirect,
+        @Valid
+        @DefaultValue
+        KeyFilter keyFilter,
+        @Valid
+        @DefaultValue
+        Expiry expiry,
+        @Valid
+        @DefaultValue
+        Analytics analytics,
+        @Valid
+        @DefaultValue
+        Bulk bulk,
+        @Valid
+        @DefaultValue
+        ReadReplicas readReplicas,
+        @Valid
+        @DefaultValue
+        PublicListing publicListing,
+        @Valid
+        @DefaultValue
+        Snapshot snapshot,
+        @Valid
+        @DefaultValue
+        Warmup warmup,
+        @Valid
+        @DefaultValue
+        RateLimit rateLimit,
+        @Valid
+        @DefaultValue
+        Auth auth,
+        @Valid
+        @DefaultValue
+        Dedup dedup
         ) {
+
+    public record RedirectCache(
+            @DefaultValue("true")
+            boolean enabled,
+            @DefaultValue("100000")
+            @Min(1)
+            long maximumSize,
+            @DefaultValue("10m")
+            Duration timeToLive,
+            @DefaultValue("false")
+            boolean compact
+    ) {
+    }
+
+    public record ClickCounter(
+            @DefaultValue("5s")
+            Duration flushInterval,
+            @DefaultValue("500")
+            @Min(1)
+            int batchSize
+    ) {
+    }
+
+    public record ShortKey(
+            @DefaultValue("counter")
+            Strategy strategy,
+            @DefaultValue("1000")
+            @Min(1)
+            int blockSize,
+            Long secret
+    ) {
+        public enum Strategy {
+            RANDOM, COUNTER
+        }
+
+        @AssertTrue(message = "secret must be set when strategy is counter")
+        public boolean isCounterKeyed() {
+            return strategy != Strategy.COUNTER || secret != null;
+        }
+    }
+
+    public record UrlValidation(
+            @DefaultValue("3s")
+            Duration connectTimeout,
+            @DefaultValue("5s")
+            Duration requestTimeout,
+            @DefaultValue("1h")
+            Duration positiveTimeToLive,
+            @DefaultValue("5m")
+            Duration negativeTimeToLive,
+            @DefaultValue("10000")
+            @Min(1)
+            long maximumSize
+    ) {
+    }
+
+    public record Pagination(
+            @DefaultValue("keyset")
+            Mode mode,
+            @DefaultValue("false")
+            boolean countTotal
+    ) {
+        public enum Mode {
+            OFFSET, KEYSET
+        }
+    }
+
+    public record Redirect(
+            @DefaultValue("false")
+            boolean fastPath,
+            @DefaultValue("302")
+            int status,
+            @NotBlank
+            @DefaultValue("no-cache")
+            String cacheControl
+    ) {
+
+        @AssertTrue(message = "must be one of 301, 302, 303, 307 or 308")
+        public boolean isRedirectStatus() {
+            return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+        }
+    }
+
+    public record KeyFilter(
+            @DefaultValue("false")
+            boolean enabled,
+            @DefaultValue("1000000")
+            @Min(1)
+            long expectedKeys,
+            @DefaultValue("0.01")
+            @DecimalMin("0.0001")
+            @DecimalMax("0.5")
+            double falsePositiveRate,
+            @DefaultValue("5m")
+            Duration refreshInterval
+    ) {
+    }
+
+    public record Expiry(
+            @DefaultValue("true")
+            boolean reaperEnabled,
+            @DefaultValue("1m")
+            Duration reaperInterval,
+            @DefaultValue("500")
+            @Min(1)
+            int reaperChunkSize,
+            @DefaultValue("200ms")
+            Duration reaperChunkPause,
+            @DefaultValue("100")
+            @Min(1)
+            int reaperMaxChunksPerRun,
+            @DefaultValue("1s")
+            Duration wheelTick
+    ) {
+    }
+
+    public record Analytics(
+            @DefaultValue("true")
+            boolean enabled,
+            @DefaultValue("65536")
+            @Min(2)
+            int bufferSize,
+            @DefaultValue("10s")
+            Duration flushInterval,
+            @DefaultValue("500")
+            @Min(1)
+            int batchSize,
+            @DefaultValue("")
+            String clientHashSecret,
+            @DefaultValue("false")
+            boolean logEnabled,
+            @DefaultValue("click-log")
+            String logDirectory,
+            @DefaultValue("64MB")
+            DataSize segmentSize,
+            @DefaultValue("16")
+            @Min(1)
+            int maxSegments,
+            @DefaultValue("true")
+            boolean hotLinksEnabled,
+            @DefaultValue("5m,1h,24h")
+            List<Duration> hotLinksWindows,
+            @DefaultValue("12")
+            @Min(1)
+            int hotLinksBuckets,
+            @DefaultValue("10")
+            @Min(1)
+            int hotLinksSize,
+            @DefaultValue("4")
+            @Min(1)
+            int hotLinksSketchDepth,
+            @DefaultValue("2048")
+            @Min(16)
+            int hotLinksSketchWidth,
+            @DefaultValue("false")
+            boolean visitorsEnabled,
+            @DefaultValue("12")
+            @Min(4)
+            @Max(16)
+            int visitorsPrecision,
+            @DefaultValue("4096")
+            @Min(1)
+            int visitorsMaxPending,
+            @DefaultValue("90")
+            @Min(1)
+            int visitorsRetentionDays
+    ) {
+        @AssertTrue(message = "client-hash-secret must be set when visitors-enabled is true")
+        public boolean isVisitorHashKeyed() {
+            return !enabled || !visitorsEnabled || !clientHashSecret.isBlank();
+        }
+    }
+
+    public record Bulk(
+            @DefaultValue("500")
+            @Min(1)
+            int batchSize,
+            @DefaultValue("32")
+            @Min(1)
+            int validationConcurrency,
+            @DefaultValue("100000")
+            @Min(1)
+            long maxRows
+    ) {
+    }
+
+    public record ReadReplicas(
+            @DefaultValue("false")
+            boolean enabled,
+            @Valid
+            @DefaultValue
+            List<Replica> replicas,
+            @DefaultValue("10")
+            @Min(1)
+            int maximumPoolSize,
+            @DefaultValue("5s")
+            Duration healthCheckInterval,
+            @DefaultValue("5s")
+            Duration stickyWindow
+    ) {
+        public record Replica(
+                @NotBlank
+                String url,
+                String username,
+                String password
+        ) {
+        }
+    }
+
+    public record PublicListing(
+            @DefaultValue("true")
+            boolean cacheEnabled,
+            @DefaultValue("5")
+            @Min(1)
+            int cachedPages,
+            @DefaultValue("15s")
+            Duration timeToLive,
+            @DefaultValue("false")
+            boolean cacheRenderedHome
+    ) {
+    }
+
+    public record Snapshot(
+            @DefaultValue("false")
+            boolean enabled,
+            @DefaultValue("redirect-snapshot")
+            String directory,
+            @DefaultValue("1h")
+            Duration rebuildInterval,
+            @DefaultValue("1d")
+            Duration maxAge
+    ) {
+    }
+
+    public record Warmup(
+            @DefaultValue("true")
+            boolean enabled,
+            @DefaultValue("10000")
+            @Min(0)
+            int topK,
+            @DefaultValue("0.2")
+            @DecimalMin("0.0")
+            @DecimalMax("1.0")
+            double recentFraction,
+            @DefaultValue("10s")
+            Duration timeBudget
+    ) {
+    }
+
+    public record RateLimit(
+            @DefaultValue("false")
+            boolean enabled,
+            @DefaultValue("100000")
+            @Min(1)
+            long maxClients,
+            @DefaultValue("10m")
+            Duration idleTimeout,
+            @DefaultValue("200")
+            @Min(1)
+            long redirectCapacity,
+            @DefaultValue("50")
+            @DecimalMin("0.001")
+            double redirectPerSecond,
+            @DefaultValue("20")
+            @Min(1)
+            long createCapacity,
+            @DefaultValue("0.5")
+            @DecimalMin("0.001")
+            double createPerSecond,
+            @DefaultValue("3")
+            @Min(1)
+            long bulkCapacity,
+            @DefaultValue("0.01")
+            @DecimalMin("0.001")
+            double bulkPerSecond,
+            @DefaultValue("10")
+            @Min(1)
+            long authCapacity,
+            @DefaultValue("0.2")
+            @DecimalMin("0.001")
+            double authPerSecond
+    ) {
+    }
+
+    public record Auth(
+            @DefaultValue("10")
+            @Min(4)
+            @Max(31)
+            int bcryptStrength,
+            @DefaultValue("2")
+            @Min(1)
+            int workers,
+            @DefaultValue("32")
+            @Min(1)
+            int queueCapacity
+    ) {
+    }
+
+    public record Dedup(
+            @DefaultValue("false")
+            boolean enabled,
+            @DefaultValue("1d")
+            Duration expiryTolerance
+    ) {
+    }
 }
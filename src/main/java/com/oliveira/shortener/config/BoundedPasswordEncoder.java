@@ -0,0 +1,138 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.domain.exceptions.AuthenticationOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt on a fixed pool of {@code workers} threads so a burst of sign-ins can only ever burn that many
+ * cores, leaving the rest to redirects. Callers wait for their hash; once {@code queue-capacity} of them are
+ * waiting, further ones fail straight away with {@link AuthenticationOverloadedException} (a 503).
+ * Hashes whose cost differs from the configured strength ask to be re-encoded, which Spring Security does
+ * on the next successful sign-in through {@code UserDetailsPasswordService}.
+ */
+class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor workers;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWait;
+    private final Counter rejections;
+
+    BoundedPasswordEncoder(int strength, int workerCount, int queueCapacity, MeterRegistry registry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "auth-worker-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.matchTimer = verificationTimer(registry, "match");
+        this.mismatchTimer = verificationTimer(registry, "mismatch");
+        this.encodeTimer = Timer.builder("shortener.auth.encode")
+                .description("BCrypt hashing of a new or upgraded password")
+                .register(registry);
+        this.queueWait = Timer.builder("shortener.auth.queue.wait")
+                .description("Time a password check waited for an auth worker")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejections = Counter.builder("shortener.auth.rejections")
+                .description("Password checks refused because the auth queue was full")
+                .register(registry);
+        Gauge.builder("shortener.auth.queue.depth", workers, pool -> pool.getQueue().size())
+                .description("Password checks waiting for an auth worker")
+                .register(registry);
+        Gauge.builder("shortener.auth.workers.active", workers, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> {
+            long start = System.nanoTime();
+            String encoded = delegate.encode(rawPassword);
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return encoded;
+        });
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> {
+            long start = System.nanoTime();
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            (matches ? matchTimer : mismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return matches;
+        });
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = workers.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new AuthenticationOverloadedException("Too many sign-ins in progress, try again shortly");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while checking the password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new AuthenticationServiceException("Password check failed", e.getCause());
+        }
+    }
+
+    private static Timer verificationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("shortener.auth.verification")
+                .description("BCrypt password verification on an auth worker")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.services.PublicListingCache;
+import com.oliveira.shortener.web.HomePageCacheFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "app.public-listing.cache-rendered-home", havingValue = "true")
+public class HomePageCacheConfig {
+
+    @Bean
+    FilterRegistrationBean<HomePageCacheFilter> homePageCacheFilter(PublicListingCache publicListingCache,
+                                                                    ApplicationProperties properties) {
+        var registration = new FilterRegistrationBean<>(
+                new HomePageCacheFilter(publicListingCache, properties.publicListing()));
+        registration.addUrlPatterns("/");
+        // ahead of the security filter chain (-100); a miss still goes through it and its headers are kept
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
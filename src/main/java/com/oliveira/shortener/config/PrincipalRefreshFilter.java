@@ -0,0 +1,61 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.domain.models.AuthenticatedUser;
+import com.oliveira.shortener.domain.services.PrincipalInvalidations;
+import com.oliveira.shortener.domain.services.SecurityUserDetailsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reloads the session's {@link AuthenticatedUser} when {@link PrincipalInvalidations} says the
+ * user changed after the principal was loaded; logs the session out if the user no longer exists.
+ */
+class PrincipalRefreshFilter extends OncePerRequestFilter {
+    private final PrincipalInvalidations principalInvalidations;
+    private final SecurityUserDetailsService userDetailsService;
+    private final SecurityContextRepository securityContextRepository;
+
+    PrincipalRefreshFilter(PrincipalInvalidations principalInvalidations,
+                           SecurityUserDetailsService userDetailsService,
+                           SecurityContextRepository securityContextRepository) {
+        this.principalInvalidations = principalInvalidations;
+        this.userDetailsService = userDetailsService;
+        this.securityContextRepository = securityContextRepository;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user && principalInvalidations.isStale(user)) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            try {
+                AuthenticatedUser refreshed = userDetailsService.loadUserByUsername(user.getUsername());
+                refreshed.eraseCredentials();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        refreshed, null, refreshed.getAuthorities()));
+                SecurityContextHolder.setContext(context);
+                securityContextRepository.saveContext(context, request, response);
+            } catch (UsernameNotFoundException e) {
+                SecurityContextHolder.clearContext();
+                HttpSession session = request.getSession(false);
+                if (session != null) {
+                    session.invalidate();
+                }
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,45 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.web.RateLimitFilter;
+import com.oliveira.shortener.web.RateLimiter;
+import com.oliveira.shortener.web.RateLimiter.EndpointClass;
+import com.oliveira.shortener.web.RateLimiter.Limit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    RateLimiter rateLimiter(ApplicationProperties properties, MeterRegistry registry) {
+        ApplicationProperties.RateLimit config = properties.rateLimit();
+        RateLimiter rateLimiter = new RateLimiter(Map.of(
+                EndpointClass.REDIRECT, new Limit(config.redirectCapacity(), config.redirectPerSecond()),
+                EndpointClass.CREATE, new Limit(config.createCapacity(), config.createPerSecond()),
+                EndpointClass.BULK, new Limit(config.bulkCapacity(), config.bulkPerSecond()),
+                EndpointClass.AUTH, new Limit(config.authCapacity(), config.authPerSecond())),
+                config.maxClients(), config.idleTimeout(), System::nanoTime);
+        Gauge.builder("shortener.rate.limit.clients", rateLimiter, RateLimiter::trackedClients)
+                .description("Clients with a live token bucket")
+                .register(registry);
+        return rateLimiter;
+    }
+
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter, MeterRegistry registry) {
+        var registration = new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, registry));
+        registration.addUrlPatterns("/s/*", "/short-urls", "/short-urls/bulk", "/login", "/register");
+        // ahead of the redirect fast path and the security filter chain
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+        return registration;
+    }
+}
@@ -0,0 +1,71 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to the read replicas. The application's {@link DataSource} becomes a
+ * {@link LazyConnectionDataSourceProxy}: a connection is only fetched once the transaction has marked it
+ * read-only or not, and read-only ones come from the {@link ReplicaRoutingDataSource}. Writes, Flyway and
+ * work outside a transaction (the redirect lookup among them) stay on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReadYourWrites readYourWrites(ApplicationProperties properties) {
+        return new ReadYourWrites(properties.readReplicas().stickyWindow());
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(ApplicationProperties properties,
+                                                      DataSourceProperties dataSourceProperties,
+                                                      HikariDataSource primaryDataSource,
+                                                      ReadYourWrites readYourWrites) {
+        ApplicationProperties.ReadReplicas config = properties.readReplicas();
+        List<DataSource> replicas = new ArrayList<>();
+        for (ApplicationProperties.ReadReplicas.Replica replica : config.replicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(StringUtils.hasText(replica.username()) ? replica.username() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(StringUtils.hasText(replica.username()) ? replica.password() : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(config.maximumPoolSize());
+            dataSource.setReadOnly(true);
+            // fail fast to the next replica instead of waiting out the default 30s when a replica is down
+            dataSource.setConnectionTimeout(2_000);
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(dataSource);
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites::isPinnedToPrimary);
+        routing.startHealthChecks(config.healthCheckInterval());
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,29 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.analytics.ClickAnalytics;
+import com.oliveira.shortener.domain.services.PrincipalInvalidations;
+import com.oliveira.shortener.domain.services.ShortUrlService;
+import com.oliveira.shortener.web.RedirectFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "app.redirect.fast-path", havingValue = "true")
+public class RedirectFastPathConfig {
+
+    @Bean
+    FilterRegistrationBean<RedirectFilter> redirectFilter(ShortUrlService shortUrlService, ClickAnalytics clickAnalytics,
+                                                          PrincipalInvalidations principalInvalidations,
+                                                          ApplicationProperties properties) {
+        var registration = new FilterRegistrationBean<>(
+                new RedirectFilter(shortUrlService, clickAnalytics, principalInvalidations, properties.redirect()));
+        registration.addUrlPatterns("/s/*");
+        // ahead of the security filter chain (-100) and the MVC dispatcher
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
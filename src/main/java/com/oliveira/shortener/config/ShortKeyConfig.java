@@ -0,0 +1,27 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.repository.ShortKeyBlockRepository;
+import com.oliveira.shortener.domain.repository.ShortUrlRepository;
+import com.oliveira.shortener.domain.services.BlockLeasedShortKeyGenerator;
+import com.oliveira.shortener.domain.services.RandomShortKeyGenerator;
+import com.oliveira.shortener.domain.services.ShortKeyCodec;
+import com.oliveira.shortener.domain.services.ShortKeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ShortKeyConfig {
+
+    @Bean
+    ShortKeyGenerator shortKeyGenerator(ApplicationProperties properties,
+                                        ShortUrlRepository shortUrlRepository,
+                                        ShortKeyBlockRepository shortKeyBlockRepository) {
+        ApplicationProperties.ShortKey config = properties.shortKey();
+        return switch (config.strategy()) {
+            case RANDOM -> new RandomShortKeyGenerator(shortUrlRepository);
+            case COUNTER -> new BlockLeasedShortKeyGenerator(
+                    shortKeyBlockRepository, new ShortKeyCodec(config.secret()), config.blockSize());
+        };
+    }
+}
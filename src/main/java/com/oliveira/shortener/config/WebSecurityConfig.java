@@ -1,16 +1,29 @@
 package com.oliveira.shortener.config;
 
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.exceptions.AuthenticationOverloadedException;
+import com.oliveira.shortener.domain.services.PrincipalInvalidations;
+import com.oliveira.shortener.domain.services.SecurityUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.CsrfConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.servletapi.SecurityContextHolderAwareRequestFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -18,14 +31,42 @@ import org.springframework.security.web.SecurityFilterChain;
 public class WebSecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ApplicationProperties properties, MeterRegistry registry) {
+        ApplicationProperties.Auth config = properties.auth();
+        return new BoundedPasswordEncoder(config.bcryptStrength(), config.workers(), config.queueCapacity(), registry);
     }
 
+    /**
+     * The actuator endpoints, the only ones that take HTTP basic auth, so a metrics scraper can send an admin's
+     * credentials; everything else is form login only.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
         http
+                .securityMatcher("/actuator/**")
                 .csrf(CsrfConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
+                        .anyRequest().denyAll()
+                )
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   PrincipalInvalidations principalInvalidations,
+                                                   SecurityUserDetailsService userDetailsService) throws Exception {
+        SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+        http
+                .csrf(CsrfConfigurer::disable)
+                .securityContext(context -> context.securityContextRepository(securityContextRepository))
+                .addFilterAfter(new PrincipalRefreshFilter(principalInvalidations, userDetailsService, securityContextRepository),
+                        SecurityContextHolderAwareRequestFilter.class)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers(
                                 "/error", "/webjars/**", "/css/**", "/js/**", "/images/**",
@@ -39,6 +80,7 @@ public class WebSecurityConfig {
                 .formLogin(form -> form
                         .loginPage("/login")
                         .defaultSuccessUrl("/")
+                        .failureHandler(loginFailureHandler())
                         .permitAll()
                 )
                 .logout(logout -> logout
@@ -50,6 +92,18 @@ public class WebSecurityConfig {
         return http.build();
     }
 
+    private static AuthenticationFailureHandler loginFailureHandler() {
+        var badCredentials = new SimpleUrlAuthenticationFailureHandler("/login?error");
+        return (request, response, exception) -> {
+            if (exception instanceof AuthenticationOverloadedException) {
+                response.setHeader("Retry-After", "1");
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, exception.getMessage());
+            } else {
+                badCredentials.onAuthenticationFailure(request, response, exception);
+            }
+        };
+    }
+
     @Bean
     RoleHierarchy roleHierarchy() {
         return RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER");
@@ -0,0 +1,215 @@
+package com.oliveira.shortener.domain.analytics;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.ClickAnalyticsStats;
+import com.oliveira.shortener.domain.models.ClickEvent;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.models.UserAgentClass;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-click analytics. Redirects only capture the raw request headers into a {@link MpscRingBuffer};
+ * if the buffer is full the click is dropped and counted, so the redirect path never waits.
+ * A single consumer thread turns them into {@link ClickEvent}s (user agent class, referrer host,
+ * HMAC of address and user agent) and hands them to every {@link ClickEventSink}.
+ */
+@Component
+public class ClickAnalytics implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ClickAnalytics.class);
+    private static final int MAX_REFERRER_HOST_LENGTH = 255;
+
+    private final ApplicationProperties.Analytics config;
+    private final List<ClickEventSink> sinks;
+    private final MpscRingBuffer<RawClick> buffer;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Mac clientHmac;
+    private Thread consumer;
+    private volatile boolean running;
+
+    public ClickAnalytics(ApplicationProperties properties, List<ClickEventSink> sinks) {
+        this.config = properties.analytics();
+        this.sinks = sinks;
+        this.buffer = new MpscRingBuffer<>(config.bufferSize());
+        this.clientHmac = createClientHmac(config.clientHashSecret());
+    }
+
+    public void publish(RedirectEntry entry, HttpServletRequest request) {
+        if (!config.enabled()) {
+            return;
+        }
+        RawClick click = new RawClick(System.currentTimeMillis(), entry.id(), request.getHeader("Referer"),
+                request.getHeader("User-Agent"), request.getRemoteAddr());
+        if (buffer.offer(click)) {
+            published.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public ClickAnalyticsStats stats() {
+        return new ClickAnalyticsStats(config.enabled(), buffer.capacity(), buffer.size(), published.sum(), dropped.sum());
+    }
+
+    private void consume() {
+        long flushIntervalNanos = config.flushInterval().toNanos();
+        long nextFlush = System.nanoTime() + flushIntervalNanos;
+        long processed = 0;
+        while (true) {
+            RawClick click = buffer.poll();
+            if (click != null) {
+                dispatch(toEvent(click));
+                processed++;
+            } else if (!running) {
+                break;
+            }
+            if (click == null || (processed & 1023) == 0) {
+                long now = System.nanoTime();
+                if (now - nextFlush >= 0) {
+                    flushSinks();
+                    nextFlush = now + flushIntervalNanos;
+                }
+                if (click == null) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+        }
+        flushSinks();
+        sinks.forEach(sink -> {
+            try {
+                sink.close();
+            } catch (RuntimeException e) {
+                log.error("Failed to close click sink {}", sink.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private void dispatch(ClickEvent event) {
+        for (ClickEventSink sink : sinks) {
+            try {
+                sink.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Click sink {} rejected event", sink.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void flushSinks() {
+        for (ClickEventSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (RuntimeException e) {
+                log.error("Failed to flush click sink {}", sink.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private ClickEvent toEvent(RawClick click) {
+        return new ClickEvent(click.timestamp(), click.shortUrlId(), referrerHost(click.referrer()),
+                UserAgentClass.classify(click.userAgent()), clientHash(click.remoteAddress(), click.userAgent()));
+    }
+
+    private long clientHash(String remoteAddress, String userAgent) {
+        clientHmac.update(String.valueOf(remoteAddress).getBytes(StandardCharsets.UTF_8));
+        clientHmac.update((byte) 0);
+        clientHmac.update(String.valueOf(userAgent).getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(clientHmac.doFinal()).getLong();
+    }
+
+    static String referrerHost(String referrer) {
+        if (referrer == null) {
+            return null;
+        }
+        int start = referrer.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int at = referrer.indexOf('@', start);
+        int end = start;
+        while (end < referrer.length() && "/?#".indexOf(referrer.charAt(end)) < 0) {
+            end++;
+        }
+        if (at >= 0 && at < end) {
+            start = at + 1;
+        }
+        int colon = referrer.indexOf(':', start);
+        if (colon >= 0 && colon < end) {
+            end = colon;
+        }
+        if (end == start) {
+            return null;
+        }
+        return referrer.substring(start, Math.min(end, start + MAX_REFERRER_HOST_LENGTH)).toLowerCase(Locale.ROOT);
+    }
+
+    private static Mac createClientHmac(String secret) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            // hashes are then only comparable within this process
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!config.enabled()) {
+            return;
+        }
+        consumer = new Thread(this::consume, "click-analytics");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (consumer == null) {
+            return;
+        }
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // the web server stops at DEFAULT_PHASE - 2048; stop strictly after it so clicks from in-flight
+        // redirects are still recorded
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private record RawClick(long timestamp, long shortUrlId, String referrer, String userAgent, String remoteAddress) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.oliveira.shortener.domain.analytics;
+
+import com.oliveira.shortener.domain.models.ClickEvent;
+
+/**
+ * Receives click events on the single analytics consumer thread, so implementations need no locking.
+ */
+public interface ClickEventSink {
+
+    void accept(ClickEvent event);
+
+    /**
+     * Called every {@code app.analytics.flush-interval} and once more on shutdown.
+     */
+    default void flush() {
+    }
+
+    default void close() {
+    }
+}
@@ -0,0 +1,73 @@
+package com.oliveira.shortener.domain.analytics;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.ClickEvent;
+import com.oliveira.shortener.domain.models.DailyClickStats;
+import com.oliveira.shortener.domain.models.UserAgentClass;
+import com.oliveira.shortener.domain.repository.DailyClickStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates click events per short url and UTC day in memory and upserts the deltas into
+ * {@code short_url_daily_stats} on every flush, in one transaction, so a failed flush is kept and retried in full
+ * on the next one without counting any click twice.
+ */
+@Component
+public class DailyClickRollup implements ClickEventSink {
+    private static final Logger log = LoggerFactory.getLogger(DailyClickRollup.class);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final DailyClickStatsRepository dailyClickStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Map<Key, long[]> pending = new HashMap<>();
+
+    public DailyClickRollup(DailyClickStatsRepository dailyClickStatsRepository, TransactionTemplate transactionTemplate,
+                            ApplicationProperties properties) {
+        this.dailyClickStatsRepository = dailyClickStatsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = properties.analytics().batchSize();
+    }
+
+    @Override
+    public void accept(ClickEvent event) {
+        long[] counts = pending.computeIfAbsent(
+                new Key(event.shortUrlId(), Math.floorDiv(event.timestamp(), MILLIS_PER_DAY)), key -> new long[3]);
+        counts[0]++;
+        if (event.userAgentClass() == UserAgentClass.MOBILE) {
+            counts[1]++;
+        } else if (event.userAgentClass() == UserAgentClass.BOT) {
+            counts[2]++;
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<DailyClickStats> stats = new ArrayList<>(pending.size());
+        pending.forEach((key, counts) -> stats.add(new DailyClickStats(key.shortUrlId(),
+                LocalDate.ofEpochDay(key.epochDay()), counts[0], counts[1], counts[2])));
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> dailyClickStatsRepository.addDailyClicks(stats, batchSize));
+            pending.clear();
+            log.debug("Upserted {} daily click stats rows", stats.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to upsert {} daily click stats rows, will retry", stats.size(), e);
+        }
+    }
+
+    private record Key(long shortUrlId, long epochDay) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.oliveira.shortener.domain.analytics;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.ClickEvent;
+import com.oliveira.shortener.domain.models.HotLink;
+import com.oliveira.shortener.domain.models.HotLinkStats;
+import com.oliveira.shortener.domain.models.HotLinkWindow;
+import com.oliveira.shortener.domain.sketch.CountMinSketch;
+import com.oliveira.shortener.domain.sketch.TopK;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Most clicked links over sliding windows ({@code app.analytics.hot-links-windows}). Each window is a ring of
+ * {@code app.analytics.hot-links-buckets} Count-Min sketches plus their running sum; when the ring turns the
+ * oldest bucket is subtracted from the sum, so a window covers between one bucket less than its length and
+ * its full length. Memory depends only on the sketch shape and top-K size, never on the number of links.
+ * Rankings are republished on every flush for the dashboard.
+ */
+@Component
+public class HotLinkTracker implements ClickEventSink {
+    private final boolean enabled;
+    private final LongSupplier clock;
+    private final List<Window> windows = new ArrayList<>();
+    private volatile HotLinkStats stats;
+
+    @Autowired
+    public HotLinkTracker(ApplicationProperties properties) {
+        this(properties.analytics().enabled() && properties.analytics().hotLinksEnabled(),
+                properties.analytics().hotLinksWindows(), properties.analytics().hotLinksBuckets(),
+                properties.analytics().hotLinksSize(), properties.analytics().hotLinksSketchDepth(),
+                properties.analytics().hotLinksSketchWidth(), System::currentTimeMillis);
+    }
+
+    HotLinkTracker(boolean enabled, List<Duration> windowLengths, int buckets, int size, int depth, int width,
+                   LongSupplier clock) {
+        this.enabled = enabled;
+        this.clock = clock;
+        if (enabled) {
+            for (Duration length : windowLengths) {
+                windows.add(new Window(length, buckets, size, depth, width));
+            }
+        }
+        publish();
+    }
+
+    @Override
+    public void accept(ClickEvent event) {
+        for (Window window : windows) {
+            window.add(event.shortUrlId(), event.timestamp());
+        }
+    }
+
+    @Override
+    public void flush() {
+        long now = clock.getAsLong();
+        for (Window window : windows) {
+            window.advance(now);
+        }
+        publish();
+    }
+
+    public HotLinkStats stats() {
+        return stats;
+    }
+
+    private void publish() {
+        long memoryBytes = 0;
+        List<HotLinkWindow> snapshots = new ArrayList<>(windows.size());
+        for (Window window : windows) {
+            memoryBytes += window.memoryBytes();
+            snapshots.add(window.snapshot());
+        }
+        stats = new HotLinkStats(enabled, memoryBytes, List.copyOf(snapshots));
+    }
+
+    private static final class Window {
+        private final Duration length;
+        private final long bucketMillis;
+        private final CountMinSketch[] buckets;
+        private final CountMinSketch sum;
+        private final TopK top;
+        private long currentBucket = Long.MIN_VALUE;
+
+        Window(Duration length, int bucketCount, int size, int depth, int width) {
+            this.length = length;
+            this.bucketMillis = Math.max(1, length.toMillis() / bucketCount);
+            this.buckets = new CountMinSketch[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new CountMinSketch(depth, width);
+            }
+            this.sum = new CountMinSketch(depth, width);
+            this.top = new TopK(size);
+        }
+
+        void add(long shortUrlId, long timestamp) {
+            advance(timestamp);
+            // a click from an already rotated bucket (the buffer is only roughly ordered) counts as current
+            buckets[slot(currentBucket)].add(shortUrlId, 1);
+            sum.add(shortUrlId, 1);
+            top.offer(shortUrlId, sum.estimate(shortUrlId));
+        }
+
+        void advance(long timestamp) {
+            long bucket = Math.floorDiv(timestamp, bucketMillis);
+            if (currentBucket == Long.MIN_VALUE) {
+                currentBucket = bucket;
+                return;
+            }
+            if (bucket <= currentBucket) {
+                return;
+            }
+            if (bucket - currentBucket >= buckets.length) {
+                for (CountMinSketch sketch : buckets) {
+                    sketch.clear();
+                }
+                sum.clear();
+            } else {
+                for (long next = currentBucket + 1; next <= bucket; next++) {
+                    CountMinSketch expired = buckets[slot(next)];
+                    sum.subtract(expired);
+                    expired.clear();
+                }
+            }
+            currentBucket = bucket;
+            top.recount(sum::estimate);
+        }
+
+        HotLinkWindow snapshot() {
+            List<HotLink> links = top.sorted().stream()
+                    .map(entry -> new HotLink(entry[0], entry[1]))
+                    .toList();
+            return new HotLinkWindow(length, sum.total(), links);
+        }
+
+        long memoryBytes() {
+            return sum.memoryBytes() * (buckets.length + 1);
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) buckets.length);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.oliveira.shortener.domain.analytics;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.ClickEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local log of click events in fixed-size, memory-mapped segment files
+ * ({@code clicks-0000000001.log}, ...). Each segment starts with a magic/version header followed by
+ * length-prefixed records; a zero length marks the end of the written part. Only the newest
+ * {@code app.analytics.max-segments} segments are kept.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.log-enabled", havingValue = "true")
+public class SegmentedClickLog implements ClickEventSink {
+    private static final Logger log = LoggerFactory.getLogger(SegmentedClickLog.class);
+    static final int MAGIC = 0x434C4B31; // "CLK1"
+    static final int HEADER_SIZE = 8;
+    private static final int FIXED_RECORD_SIZE = 4 + 8 + 8 + 8 + 1 + 2;
+    private static final int MAX_REFERRER_BYTES = 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+
+    public SegmentedClickLog(ApplicationProperties properties) {
+        ApplicationProperties.Analytics config = properties.analytics();
+        this.directory = Path.of(config.logDirectory());
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, config.segmentSize().toBytes());
+        this.maxSegments = config.maxSegments();
+    }
+
+    @Override
+    public void accept(ClickEvent event) {
+        byte[] referrer = event.referrerHost() == null
+                ? new byte[0]
+                : event.referrerHost().getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_RECORD_SIZE + Math.min(referrer.length, MAX_REFERRER_BYTES);
+        if (segment == null || segment.remaining() < length + 4) {
+            roll();
+        }
+        segment.putInt(length)
+                .putLong(event.timestamp())
+                .putLong(event.shortUrlId())
+                .putLong(event.clientHash())
+                .put((byte) event.userAgentClass().ordinal())
+                .putShort((short) (length - FIXED_RECORD_SIZE))
+                .put(referrer, 0, length - FIXED_RECORD_SIZE);
+    }
+
+    @Override
+    public void flush() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        segment = null;
+    }
+
+    private void roll() {
+        try {
+            if (segment == null) {
+                Files.createDirectories(directory);
+                segmentIndex = lastSegmentIndex();
+            } else {
+                segment.force();
+            }
+            segmentIndex++;
+            Path path = directory.resolve(segmentName(segmentIndex));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            }
+            segment.putInt(MAGIC).putInt(segmentSize);
+            deleteOldSegments();
+            log.debug("Opened click log segment {}", path);
+        } catch (IOException e) {
+            segment = null;
+            throw new UncheckedIOException("Failed to open click log segment in " + directory, e);
+        }
+    }
+
+    private long lastSegmentIndex() throws IOException {
+        return segments().stream().mapToLong(SegmentedClickLog::indexOf).max().orElse(0);
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("clicks-\\d{10}\\.log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String segmentName(long index) {
+        return "clicks-%010d.log".formatted(index);
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("clicks-".length(), name.length() - ".log".length()));
+    }
+}
@@ -0,0 +1,199 @@
+package com.oliveira.shortener.domain.analytics;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.ClickEvent;
+import com.oliveira.shortener.domain.models.DailyVisitorSketch;
+import com.oliveira.shortener.domain.models.UserAgentClass;
+import com.oliveira.shortener.domain.repository.VisitorSketchRepository;
+import com.oliveira.shortener.domain.sketch.HyperLogLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate distinct visitors per short url: a {@link HyperLogLog} of the client hashes of its non-bot clicks.
+ * Each link has one all-time sketch in {@code short_url_visitors}, a fixed few KB whatever its age, which is what
+ * the listings read; a sketch per UTC day in {@code short_url_daily_visitors} answers date ranges and is deleted
+ * after {@code app.analytics.visitors-retention-days}. Sketches of the links clicked since the last flush are kept
+ * in memory and merged into both under row locks on every flush, or early once
+ * {@code app.analytics.visitors-max-pending} link-days are pending, so several nodes can write the same link.
+ * Failed flushes are kept and retried on the next one. Needs {@code app.analytics.client-hash-secret}, without
+ * which every node and restart hashes the same visitor differently.
+ */
+@Component
+public class UniqueVisitorCounter implements ClickEventSink {
+    private static final Logger log = LoggerFactory.getLogger(UniqueVisitorCounter.class);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final VisitorSketchRepository visitorSketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int precision;
+    private final int maxPending;
+    private final int retentionDays;
+    private final int batchSize;
+    private final LongSupplier clock;
+    private final Map<Key, HyperLogLog> pending = new HashMap<>();
+    private long purgedOnDay = Long.MIN_VALUE;
+
+    @Autowired
+    public UniqueVisitorCounter(VisitorSketchRepository visitorSketchRepository,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationProperties properties) {
+        this(visitorSketchRepository, transactionTemplate, properties.analytics(), System::currentTimeMillis);
+    }
+
+    UniqueVisitorCounter(VisitorSketchRepository visitorSketchRepository, TransactionTemplate transactionTemplate,
+                         ApplicationProperties.Analytics config, LongSupplier clock) {
+        this.visitorSketchRepository = visitorSketchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = config.visitorsEnabled();
+        this.precision = config.visitorsPrecision();
+        this.maxPending = config.visitorsMaxPending();
+        this.retentionDays = config.visitorsRetentionDays();
+        this.batchSize = config.batchSize();
+        this.clock = clock;
+    }
+
+    @Override
+    public void accept(ClickEvent event) {
+        if (!enabled || event.userAgentClass() == UserAgentClass.BOT) {
+            return;
+        }
+        Key key = new Key(event.shortUrlId(), Math.floorDiv(event.timestamp(), MILLIS_PER_DAY));
+        HyperLogLog sketch = pending.get(key);
+        if (sketch == null) {
+            if (pending.size() >= maxPending) {
+                flush();
+                if (pending.size() >= maxPending) {
+                    // the database is unreachable; keep the memory bounded rather than every visitor
+                    return;
+                }
+            }
+            sketch = new HyperLogLog(precision);
+            pending.put(key, sketch);
+        }
+        // an HMAC, so already uniformly distributed
+        sketch.add(event.clientHash());
+    }
+
+    @Override
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        purgeExpiredDays();
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            int saved = transactionTemplate.execute(status -> save());
+            pending.clear();
+            log.debug("Merged {} visitor sketches", saved);
+        } catch (RuntimeException e) {
+            log.error("Failed to merge {} visitor sketches, will retry", pending.size(), e);
+        }
+    }
+
+    /**
+     * @return the estimated distinct visitors of the given short urls over all time, as of the last flush;
+     * links without any are left out
+     */
+    public Map<Long, Long> uniqueVisitors(Collection<Long> shortUrlIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (!enabled) {
+            return counts;
+        }
+        visitorSketchRepository.findTotalSketches(shortUrlIds)
+                .forEach((id, bytes) -> counts.put(id, HyperLogLog.fromBytes(bytes).estimate()));
+        return counts;
+    }
+
+    /**
+     * @return the estimated distinct visitors of the given short urls from {@code from} to {@code to} (UTC days,
+     * both inclusive, within the retention), as of the last flush; links without any are left out
+     */
+    public Map<Long, Long> uniqueVisitors(Collection<Long> shortUrlIds, LocalDate from, LocalDate to) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (!enabled) {
+            return counts;
+        }
+        Map<Long, HyperLogLog> unions = new HashMap<>();
+        for (DailyVisitorSketch sketch : visitorSketchRepository.findDailySketches(shortUrlIds, from, to)) {
+            merge(unions, sketch.shortUrlId(), HyperLogLog.fromBytes(sketch.sketch()));
+        }
+        unions.forEach((id, union) -> counts.put(id, union.estimate()));
+        return counts;
+    }
+
+    private void purgeExpiredDays() {
+        long today = Math.floorDiv(clock.getAsLong(), MILLIS_PER_DAY);
+        if (today == purgedOnDay) {
+            return;
+        }
+        try {
+            int deleted = visitorSketchRepository.deleteDailySketchesBefore(LocalDate.ofEpochDay(today - retentionDays + 1));
+            purgedOnDay = today;
+            log.debug("Deleted {} daily visitor sketches past the retention", deleted);
+        } catch (RuntimeException e) {
+            log.error("Failed to delete daily visitor sketches past the retention, will retry", e);
+        }
+    }
+
+    private int save() {
+        Map<Long, HyperLogLog> totals = new HashMap<>();
+        Set<LocalDate> days = new HashSet<>();
+        pending.forEach((key, sketch) -> {
+            totals.computeIfAbsent(key.shortUrlId(), id -> new HyperLogLog(precision)).merge(sketch);
+            days.add(LocalDate.ofEpochDay(key.epochDay()));
+        });
+
+        Map<Long, byte[]> storedTotals = visitorSketchRepository.lockTotalSketches(totals.keySet());
+        Map<Key, byte[]> storedDays = new HashMap<>();
+        visitorSketchRepository.lockDailySketches(totals.keySet(), days).forEach(sketch ->
+                storedDays.put(new Key(sketch.shortUrlId(), sketch.visitDate().toEpochDay()), sketch.sketch()));
+
+        Map<Long, byte[]> mergedTotals = new HashMap<>(totals.size() * 2);
+        totals.forEach((id, sketch) -> mergedTotals.put(id, union(storedTotals.get(id), sketch).toBytes()));
+        List<DailyVisitorSketch> mergedDays = new ArrayList<>(pending.size());
+        pending.forEach((key, sketch) -> mergedDays.add(new DailyVisitorSketch(key.shortUrlId(),
+                LocalDate.ofEpochDay(key.epochDay()), union(storedDays.get(key), sketch).toBytes())));
+        visitorSketchRepository.saveTotalSketches(mergedTotals, batchSize);
+        visitorSketchRepository.saveDailySketches(mergedDays, batchSize);
+        return mergedDays.size();
+    }
+
+    /**
+     * The stored sketch merged with {@code sketch}, leaving {@code sketch} untouched so a failed flush keeps it.
+     */
+    private static HyperLogLog union(byte[] stored, HyperLogLog sketch) {
+        if (stored == null) {
+            return sketch;
+        }
+        HyperLogLog union = HyperLogLog.fromBytes(stored);
+        union.merge(sketch);
+        return union;
+    }
+
+    private static void merge(Map<Long, HyperLogLog> unions, long shortUrlId, HyperLogLog sketch) {
+        HyperLogLog union = unions.putIfAbsent(shortUrlId, sketch);
+        if (union != null) {
+            union.merge(sketch);
+        }
+    }
+
+    private record Key(long shortUrlId, long epochDay) {
+    }
+}
@@ -0,0 +1,410 @@
+package com.oliveira.shortener.domain.compact;
+
+import com.oliveira.shortener.domain.models.RedirectEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bounded shortKey -> {@link RedirectEntry} table that keeps no objects per entry. Slots live in parallel
+ * primitive arrays probed linearly by the {@link ShortKeyPacker packed} key: id, owner (0 for none), expiry
+ * in epoch seconds (0 for none, rounded up), private flag, and a reference into 1 MB byte slabs holding the
+ * url after its "scheme://authority", which goes through a {@link HostDictionary}. A {@link RedirectEntry}
+ * is only built for the caller on a hit.
+ * <p>
+ * Readers take an optimistic {@link StampedLock} stamp and retry under the read lock if a writer got in
+ * between; writers are serialized. Once {@code maximumSize} entries are stored a CLOCK hand evicts one that
+ * was not read since the hand last passed. Removed entries leave tombstones and dead slab bytes behind;
+ * both are reclaimed when the table is rehashed.
+ */
+public final class CompactRedirectTable {
+    private static final long TOMBSTONE = -1;
+    private static final int SLAB_BITS = 20;
+    private static final int SLAB_SIZE = 1 << SLAB_BITS;
+    public static final int MAX_URL_LENGTH = SLAB_SIZE - 1;
+    private static final int MIN_SLOTS = 1 << 10;
+    private static final int MAX_HOSTS = 1 << 16;
+    private static final byte FLAG_PRIVATE = 1;
+    private static final byte[] NO_BYTES = new byte[0];
+    // long keys, ids, owners, urls; int expires, cachedAt, hosts; byte flags, referenced
+    private static final int BYTES_PER_SLOT = 4 * 8 + 3 * 4 + 2;
+
+    private final StampedLock lock = new StampedLock();
+    private final long maximumSize;
+    private final long timeToLiveNanos;
+    private final long startNanos = System.nanoTime();
+    private final HostDictionary hosts = new HostDictionary(MAX_HOSTS);
+    private final LongAdder evictions = new LongAdder();
+
+    private long[] keys;
+    private long[] ids;
+    private long[] owners;
+    private long[] urls;
+    private int[] expires;
+    private int[] cachedAt;
+    private int[] hostIds;
+    private byte[] flags;
+    private byte[] referenced;
+    private int shift;
+    private int size;
+    private int tombstones;
+    private int clockHand;
+
+    private byte[][] slabs = new byte[0][];
+    private int slabPosition = SLAB_SIZE;
+    private long liveUrlBytes;
+    private long deadSlabBytes;
+    private long withOwner;
+    private long withExpiry;
+
+    public CompactRedirectTable(long maximumSize, Duration timeToLive) {
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        allocate(MIN_SLOTS);
+    }
+
+    /**
+     * @return the entry, or null if it is not stored or older than the time to live
+     */
+    public RedirectEntry get(String shortKey) {
+        long key = ShortKeyPacker.pack(shortKey);
+        if (key == 0) {
+            return null;
+        }
+        int now = nowSeconds();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                RedirectEntry entry = read(key, shortKey, now);
+                if (lock.validate(stamp)) {
+                    return entry;
+                }
+            } catch (RuntimeException e) {
+                // torn read of arrays a writer was replacing, retried below
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(key, shortKey, now);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return false if the entry cannot be stored (key not packable or url longer than a slab)
+     */
+    public boolean put(RedirectEntry entry) {
+        long key = ShortKeyPacker.pack(entry.shortKey());
+        String url = entry.originalUrl();
+        int hostLength = HostDictionary.hostLength(url);
+        byte[] path = url.substring(hostLength).getBytes(StandardCharsets.UTF_8);
+        if (key == 0 || path.length > MAX_URL_LENGTH) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(key);
+            if (slot >= 0) {
+                release(slot);
+            } else {
+                if (size >= maximumSize) {
+                    evictOne();
+                }
+                if ((size + tombstones + 1) * 4L > keys.length * 3L) {
+                    rehash(size + 1 > keys.length / 2 ? keys.length * 2 : keys.length);
+                }
+                slot = freeSlot(key);
+                if (keys[slot] == TOMBSTONE) {
+                    tombstones--;
+                }
+                size++;
+            }
+            int hostId = hostLength == 0 ? HostDictionary.NO_HOST : hosts.intern(url.substring(0, hostLength));
+            if (hostId == HostDictionary.NO_HOST && hostLength > 0) {
+                path = url.getBytes(StandardCharsets.UTF_8);
+                if (path.length > MAX_URL_LENGTH) {
+                    keys[slot] = TOMBSTONE;
+                    size--;
+                    tombstones++;
+                    return false;
+                }
+            }
+            keys[slot] = key;
+            ids[slot] = entry.id();
+            owners[slot] = entry.ownerId() != null ? entry.ownerId() : 0;
+            expires[slot] = expiresSeconds(entry.expiresAt());
+            cachedAt[slot] = nowSeconds();
+            hostIds[slot] = hostId;
+            urls[slot] = append(path);
+            flags[slot] = Boolean.TRUE.equals(entry.isPrivate()) ? FLAG_PRIVATE : 0;
+            referenced[slot] = 0;
+            liveUrlBytes += url.getBytes(StandardCharsets.UTF_8).length;
+            withOwner += entry.ownerId() != null ? 1 : 0;
+            withExpiry += entry.expiresAt() != null ? 1 : 0;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(String shortKey) {
+        long key = ShortKeyPacker.pack(shortKey);
+        if (key == 0) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(key);
+            if (slot >= 0) {
+                removeSlot(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return bytes held by the slot arrays, url slabs and host dictionary
+     */
+    public long footprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) keys.length * BYTES_PER_SLOT + (long) slabs.length * SLAB_SIZE + hosts.footprint();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return what the stored entries would take as {@link RedirectEntry} objects in a Caffeine cache
+     */
+    public long objectGraphBytes() {
+        long stamp = lock.readLock();
+        try {
+            return estimateObjectGraphBytes(size, liveUrlBytes, withOwner, withExpiry);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Estimated heap of cached {@link RedirectEntry} objects with compressed oops: the record, its key and url
+     * Strings with their arrays, the boxed id (and owner), the expiry Instant, and Caffeine's share: its node,
+     * the ConcurrentHashMap node and table slot, and the frequency sketch. Within ~10% of a measured
+     * {@code RedirectFootprintReport}.
+     */
+    public static long estimateObjectGraphBytes(long entries, long urlBytes, long withOwner, long withExpiry) {
+        long perEntry = 40          // RedirectEntry
+                + 24 + 24           // short key String and its array
+                + 24 + 16 + 4       // url String, array header, average padding
+                + 16                // Long id
+                + 64 + 32 + 8 + 8;  // Caffeine node, ConcurrentHashMap node and slot, frequency sketch
+        return entries * perEntry + urlBytes + withOwner * 16 + withExpiry * 24;
+    }
+
+    private RedirectEntry read(long key, String shortKey, int now) {
+        long[] keys = this.keys;
+        int mask = keys.length - 1;
+        int slot = slotOf(key, shift) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            long stored = keys[slot];
+            if (stored == 0) {
+                return null;
+            }
+            if (stored == key) {
+                if (now - cachedAt[slot] > timeToLiveNanos / 1_000_000_000L) {
+                    return null;
+                }
+                RedirectEntry entry = materialize(slot, shortKey);
+                referenced[slot] = 1;
+                return entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private RedirectEntry materialize(int slot, String shortKey) {
+        long reference = urls[slot];
+        byte[] slab = slabs[(int) (reference >>> (2 * SLAB_BITS))];
+        int offset = (int) (reference >>> SLAB_BITS) & MAX_URL_LENGTH;
+        int length = (int) reference & MAX_URL_LENGTH;
+        int hostId = hostIds[slot];
+        byte[] host = hostId == HostDictionary.NO_HOST ? NO_BYTES : hosts.get(hostId);
+        byte[] url = new byte[host.length + length];
+        System.arraycopy(host, 0, url, 0, host.length);
+        System.arraycopy(slab, offset, url, host.length, length);
+        int expiresAt = expires[slot];
+        long owner = owners[slot];
+        return new RedirectEntry(ids[slot], shortKey, new String(url, StandardCharsets.UTF_8),
+                expiresAt == 0 ? null : Instant.ofEpochSecond(Integer.toUnsignedLong(expiresAt)),
+                (flags[slot] & FLAG_PRIVATE) != 0,
+                owner == 0 ? null : owner);
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key, shift) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int freeSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key, shift) & mask;
+        while (keys[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void evictOne() {
+        int mask = keys.length - 1;
+        int now = nowSeconds();
+        long timeToLiveSeconds = timeToLiveNanos / 1_000_000_000L;
+        while (true) {
+            clockHand = (clockHand + 1) & mask;
+            if (keys[clockHand] <= 0) {
+                continue;
+            }
+            if (referenced[clockHand] != 0 && now - cachedAt[clockHand] <= timeToLiveSeconds) {
+                referenced[clockHand] = 0;
+                continue;
+            }
+            removeSlot(clockHand);
+            evictions.increment();
+            return;
+        }
+    }
+
+    private void removeSlot(int slot) {
+        release(slot);
+        keys[slot] = TOMBSTONE;
+        size--;
+        tombstones++;
+    }
+
+    private void release(int slot) {
+        int length = (int) urls[slot] & MAX_URL_LENGTH;
+        int hostId = hostIds[slot];
+        deadSlabBytes += length;
+        liveUrlBytes -= length + (hostId == HostDictionary.NO_HOST ? 0 : hosts.get(hostId).length);
+        withOwner -= owners[slot] != 0 ? 1 : 0;
+        withExpiry -= expires[slot] != 0 ? 1 : 0;
+    }
+
+    private long append(byte[] path) {
+        if (slabPosition + path.length > SLAB_SIZE) {
+            slabs = Arrays.copyOf(slabs, slabs.length + 1);
+            slabs[slabs.length - 1] = new byte[SLAB_SIZE];
+            slabPosition = 0;
+        }
+        int slab = slabs.length - 1;
+        System.arraycopy(path, 0, slabs[slab], slabPosition, path.length);
+        long reference = (long) slab << (2 * SLAB_BITS) | (long) slabPosition << SLAB_BITS | path.length;
+        slabPosition += path.length;
+        return reference;
+    }
+
+    /**
+     * Re-inserts the live entries into fresh arrays, dropping tombstones, and into fresh slabs when more than
+     * half of the slab bytes are dead.
+     */
+    private void rehash(int slots) {
+        long[] oldKeys = keys;
+        long[] oldIds = ids;
+        long[] oldOwners = owners;
+        long[] oldUrls = urls;
+        int[] oldExpires = expires;
+        int[] oldCachedAt = cachedAt;
+        int[] oldHostIds = hostIds;
+        byte[] oldFlags = flags;
+        byte[] oldReferenced = referenced;
+        byte[][] oldSlabs = slabs;
+        long slabBytes = (long) (slabs.length - 1) * SLAB_SIZE + slabPosition;
+        boolean compactSlabs = slabs.length > 1 && deadSlabBytes * 2 > slabBytes;
+        if (compactSlabs) {
+            slabs = new byte[0][];
+            slabPosition = SLAB_SIZE;
+            deadSlabBytes = 0;
+        }
+        allocate(slots);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] <= 0) {
+                continue;
+            }
+            int slot = freeSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            ids[slot] = oldIds[i];
+            owners[slot] = oldOwners[i];
+            expires[slot] = oldExpires[i];
+            cachedAt[slot] = oldCachedAt[i];
+            hostIds[slot] = oldHostIds[i];
+            flags[slot] = oldFlags[i];
+            referenced[slot] = oldReferenced[i];
+            if (compactSlabs) {
+                long reference = oldUrls[i];
+                int offset = (int) (reference >>> SLAB_BITS) & MAX_URL_LENGTH;
+                int length = (int) reference & MAX_URL_LENGTH;
+                byte[] slab = oldSlabs[(int) (reference >>> (2 * SLAB_BITS))];
+                urls[slot] = append(Arrays.copyOfRange(slab, offset, offset + length));
+            } else {
+                urls[slot] = oldUrls[i];
+            }
+        }
+        tombstones = 0;
+        clockHand = 0;
+    }
+
+    private void allocate(int slots) {
+        keys = new long[slots];
+        ids = new long[slots];
+        owners = new long[slots];
+        urls = new long[slots];
+        expires = new int[slots];
+        cachedAt = new int[slots];
+        hostIds = new int[slots];
+        flags = new byte[slots];
+        referenced = new byte[slots];
+        shift = Long.numberOfLeadingZeros(slots - 1L);
+    }
+
+    private static int slotOf(long key, int shift) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private int nowSeconds() {
+        return (int) ((System.nanoTime() - startNanos) / 1_000_000_000L);
+    }
+
+    private static int expiresSeconds(Instant expiresAt) {
+        if (expiresAt == null) {
+            return 0;
+        }
+        long seconds = expiresAt.getEpochSecond() + (expiresAt.getNano() > 0 ? 1 : 0);
+        return (int) Math.clamp(seconds, 1, 0xFFFF_FFFFL);
+    }
+}
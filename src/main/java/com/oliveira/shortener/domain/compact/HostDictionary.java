@@ -0,0 +1,78 @@
+package com.oliveira.shortener.domain.compact;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns the "scheme://authority" prefix of stored urls, so the handful of hosts most links point at
+ * are kept once instead of once per link. Ids are never reused; writers must hold the table's write lock.
+ */
+final class HostDictionary {
+    static final int NO_HOST = -1;
+    // HashMap node, String and its array for each host on top of the bytes kept for readers
+    private static final int PER_HOST_OVERHEAD = 96;
+
+    private final int maximumHosts;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private volatile byte[][] hosts = new byte[64][];
+    private long bytes;
+
+    HostDictionary(int maximumHosts) {
+        this.maximumHosts = maximumHosts;
+    }
+
+    /**
+     * @return the id of the host, or {@link #NO_HOST} once the dictionary is full
+     */
+    int intern(String host) {
+        Integer id = ids.get(host);
+        if (id != null) {
+            return id;
+        }
+        int next = ids.size();
+        if (next == maximumHosts) {
+            return NO_HOST;
+        }
+        byte[][] current = hosts;
+        if (next == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        byte[] encoded = host.getBytes(StandardCharsets.UTF_8);
+        current[next] = encoded;
+        hosts = current;
+        ids.put(host, next);
+        bytes += encoded.length;
+        return next;
+    }
+
+    byte[] get(int id) {
+        return hosts[id];
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    long footprint() {
+        return (long) hosts.length * 4 + bytes * 2 + (long) ids.size() * PER_HOST_OVERHEAD;
+    }
+
+    /**
+     * @return the length of the "scheme://authority" prefix of the url, or 0 if it has none
+     */
+    static int hostLength(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme <= 0) {
+            return 0;
+        }
+        for (int i = scheme + 3; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return url.length();
+    }
+}
@@ -0,0 +1,59 @@
+package com.oliveira.shortener.domain.compact;
+
+/**
+ * Packs a base62 short key of up to 10 characters into a positive long, in bijective base 62
+ * (digits 1..62), so keys of different lengths never collide and 0 is left free for "no key".
+ */
+public final class ShortKeyPacker {
+    public static final int MAX_LENGTH = 10;
+
+    private ShortKeyPacker() {
+    }
+
+    /**
+     * @return the packed key, or 0 if it is empty, too long or not [0-9A-Za-z]
+     */
+    public static long pack(String shortKey) {
+        int length = shortKey.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return 0;
+        }
+        long packed = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = digit(shortKey.charAt(i));
+            if (digit < 0) {
+                return 0;
+            }
+            packed = packed * 62 + digit + 1;
+        }
+        return packed;
+    }
+
+    public static String unpack(long packed) {
+        char[] chars = new char[MAX_LENGTH];
+        int start = MAX_LENGTH;
+        while (packed > 0) {
+            long digit = (packed - 1) % 62;
+            chars[--start] = character((int) digit);
+            packed = (packed - 1) / 62;
+        }
+        return new String(chars, start, MAX_LENGTH - start);
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 36;
+        }
+        return -1;
+    }
+
+    private static char character(int digit) {
+        return (char) (digit < 10 ? '0' + digit : digit < 36 ? 'A' + digit - 10 : 'a' + digit - 36);
+    }
+}
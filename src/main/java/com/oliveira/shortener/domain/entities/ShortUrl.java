@@ -12,9 +12,11 @@ import java.time.Instant;
 @Entity
 @Table(name = "short_urls")
 public class ShortUrl {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "short_urls_id_gen")
-    @SequenceGenerator(name = "short_urls_id_gen", sequenceName = "short_urls_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "short_urls_id_gen", sequenceName = "short_urls_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -24,6 +26,9 @@ public class ShortUrl {
     @Column(name = "original_url", nullable = false, length = Integer.MAX_VALUE)
     private String originalUrl;
 
+    @Column(name = "url_hash", length = 32)
+    private byte[] urlHash;
+
     @ColumnDefault("false")
     @Column(name = "is_private", nullable = false)
     private Boolean isPrivate = false;
@@ -0,0 +1,6 @@
+package com.oliveira.shortener.domain.events;
+
+import com.oliveira.shortener.domain.models.RedirectEntry;
+
+public record ShortUrlCreatedEvent(RedirectEntry entry) {
+}
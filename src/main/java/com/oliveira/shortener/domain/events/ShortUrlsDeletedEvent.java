@@ -0,0 +1,6 @@
+package com.oliveira.shortener.domain.events;
+
+import java.util.List;
+
+public record ShortUrlsDeletedEvent(List<String> shortKeys) {
+}
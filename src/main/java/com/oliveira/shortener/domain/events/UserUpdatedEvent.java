@@ -0,0 +1,4 @@
+package com.oliveira.shortener.domain.events;
+
+public record UserUpdatedEvent(Long userId) {
+}
@@ -0,0 +1,9 @@
+package com.oliveira.shortener.domain.exceptions;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class AuthenticationOverloadedException extends AuthenticationServiceException {
+    public AuthenticationOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.oliveira.shortener.domain.exceptions;
+
+public class InvalidPageCursorException extends RuntimeException {
+    public InvalidPageCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
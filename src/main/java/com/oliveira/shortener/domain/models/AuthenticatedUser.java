@@ -0,0 +1,42 @@
+package com.oliveira.shortener.domain.models;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Security principal carrying the user's id, name and role so request handling never
+ * has to look the user up again by email.
+ */
+public class AuthenticatedUser extends User {
+    private final Long id;
+    private final String name;
+    private final Role role;
+    private final Instant loadedAt;
+
+    public AuthenticatedUser(Long id, String email, String password, String name, Role role) {
+        super(email, password, List.of(new SimpleGrantedAuthority(role.name())));
+        this.id = id;
+        this.name = name;
+        this.role = role;
+        this.loadedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
@@ -0,0 +1,27 @@
+package com.oliveira.shortener.domain.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkShortUrlResult(long line,
+                                 Status status,
+                                 String originalUrl,
+                                 String shortKey,
+                                 String error) {
+
+    public enum Status {
+        CREATED, INVALID, FAILED
+    }
+
+    public static BulkShortUrlResult created(BulkShortUrlRow row, String shortKey) {
+        return new BulkShortUrlResult(row.line(), Status.CREATED, row.originalUrl(), shortKey, null);
+    }
+
+    public static BulkShortUrlResult invalid(BulkShortUrlRow row, String error) {
+        return new BulkShortUrlResult(row.line(), Status.INVALID, row.originalUrl(), null, error);
+    }
+
+    public static BulkShortUrlResult failed(BulkShortUrlRow row, String error) {
+        return new BulkShortUrlResult(row.line(), Status.FAILED, row.originalUrl(), null, error);
+    }
+}
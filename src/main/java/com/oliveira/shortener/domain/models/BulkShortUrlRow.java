@@ -0,0 +1,15 @@
+package com.oliveira.shortener.domain.models;
+
+/**
+ * One input row of a bulk upload; {@code error} is set when the row could not be parsed.
+ */
+public record BulkShortUrlRow(long line,
+                              String originalUrl,
+                              Boolean isPrivate,
+                              Integer expirationInDays,
+                              String error) {
+
+    public static BulkShortUrlRow invalid(long line, String error) {
+        return new BulkShortUrlRow(line, null, null, null, error);
+    }
+}
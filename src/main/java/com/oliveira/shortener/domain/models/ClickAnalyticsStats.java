@@ -0,0 +1,8 @@
+package com.oliveira.shortener.domain.models;
+
+public record ClickAnalyticsStats(boolean enabled,
+                                  int capacity,
+                                  long pending,
+                                  long published,
+                                  long dropped) {
+}
@@ -0,0 +1,12 @@
+package com.oliveira.shortener.domain.models;
+
+/**
+ * One redirect. The client is only kept as a keyed hash of its address and user agent,
+ * and the referrer is reduced to its host.
+ */
+public record ClickEvent(long timestamp,
+                         long shortUrlId,
+                         String referrerHost,
+                         UserAgentClass userAgentClass,
+                         long clientHash) {
+}
@@ -0,0 +1,10 @@
+package com.oliveira.shortener.domain.models;
+
+import java.time.LocalDate;
+
+public record DailyClickStats(long shortUrlId,
+                              LocalDate clickDate,
+                              long clicks,
+                              long mobileClicks,
+                              long botClicks) {
+}
@@ -0,0 +1,11 @@
+package com.oliveira.shortener.domain.models;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized {@link com.oliveira.shortener.domain.sketch.HyperLogLog} of the visitors of one short url on one UTC day.
+ */
+public record DailyVisitorSketch(long shortUrlId,
+                                 LocalDate visitDate,
+                                 byte[] sketch) {
+}
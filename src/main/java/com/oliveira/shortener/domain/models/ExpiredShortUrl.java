@@ -0,0 +1,4 @@
+package com.oliveira.shortener.domain.models;
+
+public record ExpiredShortUrl(Long id, String shortKey) {
+}
@@ -0,0 +1,4 @@
+package com.oliveira.shortener.domain.models;
+
+public record HotLink(long shortUrlId, long clicks) {
+}
@@ -0,0 +1,16 @@
+package com.oliveira.shortener.domain.models;
+
+import java.util.List;
+
+public record HotLinkStats(boolean enabled,
+                           long memoryBytes,
+                           List<HotLinkWindow> windows) {
+
+    public List<Long> shortUrlIds() {
+        return windows.stream()
+                .flatMapToLong(window -> window.links().stream().mapToLong(HotLink::shortUrlId))
+                .distinct()
+                .boxed()
+                .toList();
+    }
+}
@@ -0,0 +1,19 @@
+package com.oliveira.shortener.domain.models;
+
+import java.time.Duration;
+import java.util.List;
+
+public record HotLinkWindow(Duration window,
+                           long clicks,
+                           List<HotLink> links) {
+
+    public String label() {
+        if (window.toSeconds() % 3600 == 0) {
+            return window.toHours() + "h";
+        }
+        if (window.toSeconds() % 60 == 0) {
+            return window.toMinutes() + "m";
+        }
+        return window.toSeconds() + "s";
+    }
+}
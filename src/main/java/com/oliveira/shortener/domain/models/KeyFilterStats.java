@@ -0,0 +1,10 @@
+package com.oliveira.shortener.domain.models;
+
+public record KeyFilterStats(boolean enabled,
+                             boolean ready,
+                             long counters,
+                             int hashFunctions,
+                             long memoryBytes,
+                             long approximateKeys,
+                             long rejections) {
+}
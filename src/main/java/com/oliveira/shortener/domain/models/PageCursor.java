@@ -0,0 +1,31 @@
+package com.oliveira.shortener.domain.models;
+
+import com.oliveira.shortener.domain.exceptions.InvalidPageCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in a listing ordered by {@code (createdAt DESC, id DESC)}, encoded as an opaque URL-safe token.
+ */
+public record PageCursor(Instant createdAt, Long id) {
+
+    public static final PageCursor FIRST = new PageCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + "." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            String[] parts = raw.split("\\.");
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new PageCursor(createdAt, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidPageCursorException("Invalid page cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.oliveira.shortener.domain.models;
+
+public record PageQuery(int page, String after, String before, int pageSize) {
+
+    public static PageQuery ofPage(int page, int pageSize) {
+        return new PageQuery(page, null, null, pageSize);
+    }
+
+    public boolean isFirstPage() {
+        return after == null && before == null && page <= 1;
+    }
+}
@@ -3,6 +3,7 @@ package com.oliveira.shortener.domain.models;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.function.Function;
 
 public record PagedResult<T>(
         List<T> data,
@@ -12,7 +13,9 @@ public record PagedResult<T>(
         boolean isFirst,
         boolean isLast,
         boolean hasNext,
-        boolean hasPrevious) {
+        boolean hasPrevious,
+        String nextCursor,
+        String previousCursor) {
 
     public static <T> PagedResult<T> from(Page<T> page) {
         return new PagedResult<>(
@@ -23,6 +26,36 @@ public record PagedResult<T>(
                 page.isFirst(),
                 page.isLast(),
                 page.hasNext(),
-                page.hasPrevious());
+                page.hasPrevious(),
+                null,
+                null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Keyset page; {@code totalElements} is -1 when the total was not counted.
+     */
+    public static <T> PagedResult<T> ofCursors(List<T> data, int pageSize, long totalElements,
+                                               String nextCursor, String previousCursor) {
+        int totalPages = totalElements < 0 ? -1 : (int) ((totalElements + pageSize - 1) / pageSize);
+        return new PagedResult<>(
+                data,
+                0,
+                totalPages,
+                totalElements,
+                previousCursor == null,
+                nextCursor == null,
+                nextCursor != null,
+                previousCursor != null,
+                nextCursor,
+                previousCursor);
+    }
+
+    public <R> PagedResult<R> map(Function<? super T, ? extends R> mapper) {
+        return new PagedResult<>(data.stream().<R>map(mapper).toList(), pageNumber, totalPages, totalElements,
+                isFirst, isLast, hasNext, hasPrevious, nextCursor, previousCursor);
+    }
+
+    public boolean isCursorBased() {
+        return pageNumber == 0;
+    }
+}
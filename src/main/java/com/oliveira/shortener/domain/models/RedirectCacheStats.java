@@ -0,0 +1,20 @@
+package com.oliveira.shortener.domain.models;
+
+/**
+ * @param footprintBytes bytes held by the compact table, -1 when the cache is not compact
+ * @param objectGraphBytes estimated heap the entries would take (or take) as objects, -1 when not computed
+ */
+public record RedirectCacheStats(boolean enabled,
+                                 boolean compact,
+                                 long size,
+                                 long hitCount,
+                                 long missCount,
+                                 long evictionCount,
+                                 long footprintBytes,
+                                 long objectGraphBytes) {
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+}
@@ -0,0 +1,20 @@
+package com.oliveira.shortener.domain.models;
+
+import java.time.Instant;
+import java.util.Objects;
+
+public record RedirectEntry(Long id,
+                            String shortKey,
+                            String originalUrl,
+                            Instant expiresAt,
+                            Boolean isPrivate,
+                            Long ownerId) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+
+    public boolean isAccessibleBy(Long userId) {
+        return !Boolean.TRUE.equals(isPrivate) || ownerId == null || Objects.equals(ownerId, userId);
+    }
+}
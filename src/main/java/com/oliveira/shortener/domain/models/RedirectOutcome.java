@@ -0,0 +1,18 @@
+package com.oliveira.shortener.domain.models;
+
+public enum RedirectOutcome {
+    FOUND("found"),
+    EXPIRED("expired"),
+    PRIVATE_DENIED("private-denied"),
+    NOT_FOUND("not-found");
+
+    private final String tag;
+
+    RedirectOutcome(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
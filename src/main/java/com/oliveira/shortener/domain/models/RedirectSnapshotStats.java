@@ -0,0 +1,8 @@
+package com.oliveira.shortener.domain.models;
+
+public record RedirectSnapshotStats(boolean enabled,
+                                    long entries,
+                                    long pendingChanges,
+                                    long hitCount,
+                                    long missCount) {
+}
@@ -0,0 +1,30 @@
+package com.oliveira.shortener.domain.models;
+
+import java.util.Locale;
+
+public enum UserAgentClass {
+    UNKNOWN, DESKTOP, MOBILE, BOT;
+
+    private static final String[] BOT_MARKERS = {
+            "bot", "crawl", "spider", "slurp", "preview", "curl", "wget", "python", "httpclient", "java/", "okhttp"
+    };
+    private static final String[] MOBILE_MARKERS = {"mobi", "android", "iphone", "ipad"};
+
+    public static UserAgentClass classify(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        String value = userAgent.toLowerCase(Locale.ROOT);
+        for (String marker : BOT_MARKERS) {
+            if (value.contains(marker)) {
+                return BOT;
+            }
+        }
+        for (String marker : MOBILE_MARKERS) {
+            if (value.contains(marker)) {
+                return MOBILE;
+            }
+        }
+        return DESKTOP;
+    }
+}
@@ -0,0 +1,63 @@
+package com.oliveira.shortener.domain.repository;
+
+import com.oliveira.shortener.domain.entities.ShortUrl;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.services.UrlNormalizer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public class BulkShortUrlRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkShortUrlRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Allocates {@code count} ids with the same pooled scheme Hibernate uses for {@link ShortUrl}:
+     * every {@code nextval} reserves the {@link ShortUrl#ID_ALLOCATION_SIZE} ids ending at the returned value.
+     */
+    public long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int allocated = 0;
+        while (allocated < count) {
+            Long high = jdbcTemplate.queryForObject("SELECT nextval('short_urls_id_seq')", Long.class);
+            if (high < ShortUrl.ID_ALLOCATION_SIZE) {
+                // Hibernate treats a first value below the pool size as a start value, not a pool end
+                continue;
+            }
+            for (long id = high - ShortUrl.ID_ALLOCATION_SIZE + 1; id <= high && allocated < count; id++) {
+                ids[allocated++] = id;
+            }
+        }
+        return ids;
+    }
+
+    public void insert(List<RedirectEntry> entries, Instant createdAt, int batchSize) {
+        String sql = """
+                INSERT INTO short_urls (id, short_key, original_url, url_hash, is_private, expires_at, created_by, click_count, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?)
+                """;
+        Timestamp created = Timestamp.from(createdAt);
+        jdbcTemplate.batchUpdate(sql, entries, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.id());
+            ps.setString(2, entry.shortKey());
+            ps.setString(3, entry.originalUrl());
+            ps.setBytes(4, UrlNormalizer.contentHash(entry.originalUrl()));
+            ps.setBoolean(5, Boolean.TRUE.equals(entry.isPrivate()));
+            if (entry.expiresAt() != null) {
+                ps.setTimestamp(6, Timestamp.from(entry.expiresAt()));
+            } else {
+                ps.setNull(6, Types.TIMESTAMP);
+            }
+            ps.setLong(7, entry.ownerId());
+            ps.setTimestamp(8, created);
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.oliveira.shortener.domain.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class ClickCountRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickCountRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void addClickCounts(List<Map.Entry<Long, Long>> deltas, int batchSize) {
+        String sql = "UPDATE short_urls SET click_count = click_count + ? WHERE id = ?";
+        jdbcTemplate.batchUpdate(sql, deltas, batchSize, (ps, delta) -> {
+            ps.setLong(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+        });
+    }
+}
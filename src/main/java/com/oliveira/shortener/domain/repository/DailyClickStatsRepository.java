@@ -0,0 +1,43 @@
+package com.oliveira.shortener.domain.repository;
+
+import com.oliveira.shortener.domain.models.DailyClickStats;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.Collection;
+
+@Repository
+public class DailyClickStatsRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public DailyClickStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the given counts to the per-day rows, creating them as needed.
+     * Rows for short urls that have been deleted in the meantime are skipped.
+     */
+    public void addDailyClicks(Collection<DailyClickStats> stats, int batchSize) {
+        String sql = """
+                MERGE INTO short_url_daily_stats s
+                USING (SELECT id AS short_url_id, CAST(? AS DATE) AS click_date, CAST(? AS BIGINT) AS clicks,
+                              CAST(? AS BIGINT) AS mobile_clicks, CAST(? AS BIGINT) AS bot_clicks
+                       FROM short_urls WHERE id = ?) d
+                ON s.short_url_id = d.short_url_id AND s.click_date = d.click_date
+                WHEN MATCHED THEN UPDATE SET clicks = s.clicks + d.clicks,
+                                             mobile_clicks = s.mobile_clicks + d.mobile_clicks,
+                                             bot_clicks = s.bot_clicks + d.bot_clicks
+                WHEN NOT MATCHED THEN INSERT (short_url_id, click_date, clicks, mobile_clicks, bot_clicks)
+                                      VALUES (d.short_url_id, d.click_date, d.clicks, d.mobile_clicks, d.bot_clicks)
+                """;
+        jdbcTemplate.batchUpdate(sql, stats, batchSize, (ps, stat) -> {
+            ps.setDate(1, Date.valueOf(stat.clickDate()));
+            ps.setLong(2, stat.clicks());
+            ps.setLong(3, stat.mobileClicks());
+            ps.setLong(4, stat.botClicks());
+            ps.setLong(5, stat.shortUrlId());
+        });
+    }
+}
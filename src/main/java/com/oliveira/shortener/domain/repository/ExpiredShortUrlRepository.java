@@ -0,0 +1,53 @@
+package com.oliveira.shortener.domain.repository;
+
+import com.oliveira.shortener.domain.models.ExpiredShortUrl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class ExpiredShortUrlRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpiredShortUrlRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locks the next chunk of expired rows in id order; must run inside a transaction. Rows already locked
+     * by a reaper on another node are skipped rather than waited for, so the nodes work on disjoint chunks.
+     */
+    public List<ExpiredShortUrl> lockExpired(Instant now, int limit) {
+        String sql = """
+                SELECT id, short_key FROM short_urls
+                WHERE expires_at < ?
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """;
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new ExpiredShortUrl(rs.getLong("id"), rs.getString("short_key")),
+                Timestamp.from(now), limit);
+    }
+
+    /**
+     * Deletes the given rows and returns the keys that were actually removed by this call.
+     */
+    public List<String> delete(List<ExpiredShortUrl> expired) {
+        int[][] counts = jdbcTemplate.batchUpdate("DELETE FROM short_urls WHERE id = ?", expired, expired.size(),
+                (ps, shortUrl) -> ps.setLong(1, shortUrl.id()));
+        List<String> deleted = new ArrayList<>(expired.size());
+        int[] rowCounts = counts.length > 0 ? counts[0] : new int[0];
+        for (int i = 0; i < expired.size(); i++) {
+            // drivers that cannot report per-row counts return SUCCESS_NO_INFO (-2); the rows were locked, so trust them
+            if (i >= rowCounts.length || rowCounts[i] != 0) {
+                deleted.add(expired.get(i).shortKey());
+            }
+        }
+        return deleted;
+    }
+}
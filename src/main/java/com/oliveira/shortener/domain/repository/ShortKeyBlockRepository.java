@@ -0,0 +1,20 @@
+package com.oliveira.shortener.domain.repository;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ShortKeyBlockRepository {
+    private final JdbcClient jdbcClient;
+
+    public ShortKeyBlockRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    public long nextBlockNumber() {
+        return jdbcClient
+                .sql("SELECT nextval('short_key_block_seq')")
+                .query(Long.class)
+                .single();
+    }
+}
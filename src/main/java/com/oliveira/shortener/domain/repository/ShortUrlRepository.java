@@ -1,32 +1,146 @@
 package com.oliveira.shortener.domain.repository;
 
 import com.oliveira.shortener.domain.entities.ShortUrl;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface ShortUrlRepository extends JpaRepository<ShortUrl, Long> {
 
-    @Query("SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy WHERE su.isPrivate = false")
-    Page<ShortUrl> findPublicShortUrls(Pageable pageable);
+    @Query(value = """
+            SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy
+            WHERE su.isPrivate = false AND (su.expiresAt IS NULL OR su.expiresAt > :now)
+            """,
+            countQuery = """
+            SELECT count(su) FROM ShortUrl su
+            WHERE su.isPrivate = false AND (su.expiresAt IS NULL OR su.expiresAt > :now)
+            """)
+    Page<ShortUrl> findPublicShortUrls(Instant now, Pageable pageable);
 
 
     Boolean existsByShortKey(String shortKey);
 
     Optional<ShortUrl> findByShortKey(String shortKey);
 
+    @Query("""
+            SELECT new com.oliveira.shortener.domain.models.RedirectEntry(
+                su.id, su.shortKey, su.originalUrl, su.expiresAt, su.isPrivate, u.id)
+            FROM ShortUrl su LEFT JOIN su.createdBy u
+            WHERE su.shortKey = :shortKey
+            """)
+    Optional<RedirectEntry> findRedirectEntryByShortKey(String shortKey);
 
-    Page<ShortUrl> findByCreatedById(Long userId, Pageable pageable);
+    @Query(value = """
+            SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy
+            WHERE su.createdBy.id = :userId AND (su.expiresAt IS NULL OR su.expiresAt > :now)
+            """,
+            countQuery = """
+            SELECT count(su) FROM ShortUrl su
+            WHERE su.createdBy.id = :userId AND (su.expiresAt IS NULL OR su.expiresAt > :now)
+            """)
+    Page<ShortUrl> findByCreatedById(Long userId, Instant now, Pageable pageable);
 
-    @Modifying
-    void deleteByIdInAndCreatedById(List<Long> ids, Long userId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ShortUrl> findByIdInAndCreatedById(List<Long> ids, Long userId);
 
-    @Query("select u from ShortUrl u left join fetch u.createdBy")
-    Page<ShortUrl> findAllShortUrls(Pageable pageable);
+    @Query("SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy WHERE su.id IN :ids")
+    List<ShortUrl> findWithCreatorByIdIn(List<Long> ids);
+
+    @Query(value = """
+            select u from ShortUrl u left join fetch u.createdBy
+            where u.expiresAt is null or u.expiresAt > :now
+            """,
+            countQuery = "select count(u) from ShortUrl u where u.expiresAt is null or u.expiresAt > :now")
+    Page<ShortUrl> findAllShortUrls(Instant now, Pageable pageable);
+
+    @Query("""
+            SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy
+            WHERE su.isPrivate = false AND (su.expiresAt IS NULL OR su.expiresAt > :now)
+              AND (su.createdAt, su.id) < (:createdAt, :id)
+            ORDER BY su.createdAt DESC, su.id DESC
+            """)
+    List<ShortUrl> findPublicShortUrlsAfter(Instant now, Instant createdAt, Long id, Limit limit);
+
+    @Query("""
+            SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy
+            WHERE su.isPrivate = false AND (su.expiresAt IS NULL OR su.expiresAt > :now)
+              AND (su.createdAt, su.id) > (:createdAt, :id)
+            ORDER BY su.createdAt ASC, su.id ASC
+            """)
+    List<ShortUrl> findPublicShortUrlsBefore(Instant now, Instant createdAt, Long id, Limit limit);
+
+    @Query("""
+            SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy
+            WHERE su.createdBy.id = :userId AND (su.expiresAt IS NULL OR su.expiresAt > :now)
+              AND (su.createdAt, su.id) < (:createdAt, :id)
+            ORDER BY su.createdAt DESC, su.id DESC
+            """)
+    List<ShortUrl> findUserShortUrlsAfter(Long userId, Instant now, Instant createdAt, Long id, Limit limit);
+
+    @Query("""
+            SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy
+            WHERE su.createdBy.id = :userId AND (su.expiresAt IS NULL OR su.expiresAt > :now)
+              AND (su.createdAt, su.id) > (:createdAt, :id)
+            ORDER BY su.createdAt ASC, su.id ASC
+            """)
+    List<ShortUrl> findUserShortUrlsBefore(Long userId, Instant now, Instant createdAt, Long id, Limit limit);
+
+    @Query("""
+            SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy
+            WHERE (su.expiresAt IS NULL OR su.expiresAt > :now)
+              AND (su.createdAt, su.id) < (:createdAt, :id)
+            ORDER BY su.createdAt DESC, su.id DESC
+            """)
+    List<ShortUrl> findAllShortUrlsAfter(Instant now, Instant createdAt, Long id, Limit limit);
+
+    @Query("""
+            SELECT su FROM ShortUrl su LEFT JOIN FETCH su.createdBy
+            WHERE (su.expiresAt IS NULL OR su.expiresAt > :now)
+              AND (su.createdAt, su.id) > (:createdAt, :id)
+            ORDER BY su.createdAt ASC, su.id ASC
+            """)
+    List<ShortUrl> findAllShortUrlsBefore(Instant now, Instant createdAt, Long id, Limit limit);
+
+    @Query("SELECT count(su) FROM ShortUrl su WHERE su.isPrivate = false AND (su.expiresAt IS NULL OR su.expiresAt > :now)")
+    long countPublicShortUrls(Instant now);
+
+    @Query("SELECT count(su) FROM ShortUrl su WHERE su.createdBy.id = :userId AND (su.expiresAt IS NULL OR su.expiresAt > :now)")
+    long countUserShortUrls(Long userId, Instant now);
+
+    @Query("SELECT count(su) FROM ShortUrl su WHERE su.expiresAt IS NULL OR su.expiresAt > :now")
+    long countAllShortUrls(Instant now);
+
+    @Query("""
+            SELECT su FROM ShortUrl su
+            WHERE su.urlHash = :urlHash AND su.createdBy IS NULL AND su.isPrivate = false
+              AND su.expiresAt BETWEEN :expiresFrom AND :expiresTo
+            ORDER BY su.expiresAt DESC
+            """)
+    List<ShortUrl> findReusableAnonymous(byte[] urlHash, Instant expiresFrom, Instant expiresTo, Limit limit);
+
+    @Query("""
+            SELECT su FROM ShortUrl su JOIN FETCH su.createdBy u
+            WHERE su.urlHash = :urlHash AND u.id = :userId AND su.isPrivate = :isPrivate
+              AND su.expiresAt BETWEEN :expiresFrom AND :expiresTo
+            ORDER BY su.expiresAt DESC
+            """)
+    List<ShortUrl> findReusableOwned(byte[] urlHash, Long userId, boolean isPrivate,
+                                     Instant expiresFrom, Instant expiresTo, Limit limit);
+
+    @Query("""
+            SELECT su FROM ShortUrl su JOIN FETCH su.createdBy u
+            WHERE su.urlHash = :urlHash AND u.id = :userId AND su.isPrivate = :isPrivate AND su.expiresAt IS NULL
+            ORDER BY su.id DESC
+            """)
+    List<ShortUrl> findReusableOwnedWithoutExpiry(byte[] urlHash, Long userId, boolean isPrivate, Limit limit);
 }
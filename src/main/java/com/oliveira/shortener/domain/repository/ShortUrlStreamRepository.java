@@ -0,0 +1,107 @@
+package com.oliveira.shortener.domain.repository;
+
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only scans over {@code short_urls}. Rows are handed to the callback as they arrive;
+ * the read-only transaction lets the PostgreSQL driver use a server-side cursor with the fetch size.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class ShortUrlStreamRepository {
+    private static final int FETCH_SIZE = 1000;
+    private static final String EXPORT_ROWS = """
+            SELECT su.id, su.short_key, su.original_url, su.is_private, su.expires_at, su.click_count,
+                   su.created_at, su.created_by, u.name
+            FROM short_urls su LEFT JOIN users u ON u.id = su.created_by
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShortUrlStreamRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public void forEachShortKey(Consumer<String> consumer) {
+        jdbcTemplate.query("SELECT short_key FROM short_urls", rs -> {
+            consumer.accept(rs.getString(1));
+        });
+    }
+
+    /**
+     * Streams the export rows of one owner, newest first. Columns, in order:
+     * id, short_key, original_url, is_private, expires_at, click_count, created_at, created_by, created_by_name.
+     */
+    public void forEachExportRow(long userId, RowCallbackHandler handler) {
+        jdbcTemplate.query(EXPORT_ROWS + " WHERE su.created_by = ? ORDER BY su.created_at DESC, su.id DESC",
+                handler, userId);
+    }
+
+    /**
+     * Streams the export rows of every user, anonymous links included, newest first; same columns as
+     * {@link #forEachExportRow}.
+     */
+    public void forEachExportRowOfAllUsers(RowCallbackHandler handler) {
+        jdbcTemplate.query(EXPORT_ROWS + " ORDER BY su.created_at DESC, su.id DESC", handler);
+    }
+
+    /**
+     * Streams every link that has not expired yet. Columns, in order:
+     * id, short_key, original_url, expires_at, is_private, created_by.
+     */
+    public void forEachRedirectRow(Instant now, RowCallbackHandler handler) {
+        jdbcTemplate.query("""
+                SELECT id, short_key, original_url, expires_at, is_private, created_by
+                FROM short_urls
+                WHERE expires_at IS NULL OR expires_at > ?
+                """, handler, Timestamp.from(now));
+    }
+
+    /**
+     * Streams up to {@code limit} unexpired links, either the most clicked or the most recently created,
+     * and stops early once {@code deadline} has passed.
+     *
+     * @return the number of links handed to the consumer
+     */
+    public int forEachHotRedirectEntry(Instant now, boolean byRecency, int limit, Instant deadline,
+                                       Consumer<RedirectEntry> consumer) {
+        String sql = """
+                SELECT id, short_key, original_url, expires_at, is_private, created_by
+                FROM short_urls
+                WHERE expires_at IS NULL OR expires_at > ?
+                ORDER BY %s
+                LIMIT ?
+                """.formatted(byRecency ? "created_at DESC, id DESC" : "click_count DESC, created_at DESC");
+        Integer count = jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(sql);
+            statement.setQueryTimeout((int) Math.max(1, Duration.between(Instant.now(), deadline).toSeconds()));
+            statement.setTimestamp(1, Timestamp.from(now));
+            statement.setInt(2, limit);
+            return statement;
+        }, rs -> {
+            int streamed = 0;
+            while (rs.next() && Instant.now().isBefore(deadline)) {
+                Timestamp expiresAt = rs.getTimestamp(4);
+                long createdBy = rs.getLong(6);
+                Long ownerId = rs.wasNull() ? null : createdBy;
+                consumer.accept(new RedirectEntry(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        expiresAt != null ? expiresAt.toInstant() : null, rs.getBoolean(5), ownerId));
+                streamed++;
+            }
+            return streamed;
+        });
+        return count != null ? count : 0;
+    }
+}
@@ -71,6 +71,13 @@ public class UserRepository /*extends JpaRepository<User, Long>*/ {
         log.info("User saved with id: {}", userId);
     }
 
+    public void updatePassword(String email, String password) {
+        jdbcClient.sql("UPDATE users SET password = :password WHERE email = :email")
+                .param("password", password)
+                .param("email", email)
+                .update();
+    }
+
 
 
     static class UserRowMapper implements RowMapper<User> {
@@ -0,0 +1,161 @@
+package com.oliveira.shortener.domain.repository;
+
+import com.oliveira.shortener.domain.models.DailyVisitorSketch;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Visitor sketches in {@code short_url_visitors} (one all-time union per short url) and
+ * {@code short_url_daily_visitors} (one per short url and UTC day).
+ */
+@Repository
+public class VisitorSketchRepository {
+    private static final String SELECT_DAILY_SKETCHES = """
+            SELECT short_url_id, visit_date, sketch FROM short_url_daily_visitors
+            WHERE short_url_id IN (:ids)
+            """;
+
+    private final JdbcClient jdbcClient;
+    private final JdbcTemplate jdbcTemplate;
+
+    public VisitorSketchRepository(JdbcClient jdbcClient, JdbcTemplate jdbcTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<Long, byte[]> findTotalSketches(Collection<Long> shortUrlIds) {
+        return queryTotalSketches("SELECT short_url_id, sketch FROM short_url_visitors WHERE short_url_id IN (:ids)",
+                shortUrlIds);
+    }
+
+    /**
+     * Locks the all-time sketches of the given short urls; must run inside a transaction, before
+     * {@link #lockDailySketches} so that nodes always lock in the same order.
+     */
+    public Map<Long, byte[]> lockTotalSketches(Collection<Long> shortUrlIds) {
+        return queryTotalSketches("""
+                SELECT short_url_id, sketch FROM short_url_visitors
+                WHERE short_url_id IN (:ids)
+                ORDER BY short_url_id
+                FOR UPDATE
+                """, shortUrlIds);
+    }
+
+    /**
+     * Replaces the all-time sketches, creating rows as needed. Sketches of short urls that have been
+     * deleted in the meantime are skipped.
+     */
+    public void saveTotalSketches(Map<Long, byte[]> sketches, int batchSize) {
+        String sql = """
+                MERGE INTO short_url_visitors v
+                USING (SELECT id AS short_url_id, CAST(? AS BYTEA) AS sketch, CAST(? AS TIMESTAMP) AS updated_at
+                       FROM short_urls WHERE id = ?) s
+                ON v.short_url_id = s.short_url_id
+                WHEN MATCHED THEN UPDATE SET sketch = s.sketch, updated_at = s.updated_at
+                WHEN NOT MATCHED THEN INSERT (short_url_id, sketch, updated_at)
+                                      VALUES (s.short_url_id, s.sketch, s.updated_at)
+                """;
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(sql, new ArrayList<>(sketches.entrySet()), batchSize, (ps, sketch) -> {
+            ps.setBytes(1, sketch.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, sketch.getKey());
+        });
+    }
+
+    /**
+     * The daily sketches of the given short urls from {@code from} to {@code to}, both inclusive.
+     */
+    public List<DailyVisitorSketch> findDailySketches(Collection<Long> shortUrlIds, LocalDate from, LocalDate to) {
+        if (shortUrlIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcClient.sql(SELECT_DAILY_SKETCHES + "AND visit_date BETWEEN :from AND :to")
+                .param("ids", shortUrlIds)
+                .param("from", Date.valueOf(from))
+                .param("to", Date.valueOf(to))
+                .query(VisitorSketchRepository::mapDailySketch)
+                .list();
+    }
+
+    /**
+     * Locks the daily sketches of the given short urls on the given days; must run inside a transaction.
+     * May also lock and return other days of those short urls.
+     */
+    public List<DailyVisitorSketch> lockDailySketches(Collection<Long> shortUrlIds, Collection<LocalDate> days) {
+        if (shortUrlIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcClient.sql(SELECT_DAILY_SKETCHES + """
+                        AND visit_date IN (:days)
+                        ORDER BY short_url_id, visit_date
+                        FOR UPDATE
+                        """)
+                .param("ids", shortUrlIds)
+                .param("days", days.stream().map(Date::valueOf).toList())
+                .query(VisitorSketchRepository::mapDailySketch)
+                .list();
+    }
+
+    /**
+     * Replaces the daily sketches, creating rows as needed. Sketches of short urls that have been
+     * deleted in the meantime are skipped.
+     */
+    public void saveDailySketches(Collection<DailyVisitorSketch> sketches, int batchSize) {
+        String sql = """
+                MERGE INTO short_url_daily_visitors v
+                USING (SELECT id AS short_url_id, CAST(? AS DATE) AS visit_date, CAST(? AS BYTEA) AS sketch,
+                              CAST(? AS TIMESTAMP) AS updated_at
+                       FROM short_urls WHERE id = ?) s
+                ON v.short_url_id = s.short_url_id AND v.visit_date = s.visit_date
+                WHEN MATCHED THEN UPDATE SET sketch = s.sketch, updated_at = s.updated_at
+                WHEN NOT MATCHED THEN INSERT (short_url_id, visit_date, sketch, updated_at)
+                                      VALUES (s.short_url_id, s.visit_date, s.sketch, s.updated_at)
+                """;
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(sql, new ArrayList<>(sketches), batchSize, (ps, sketch) -> {
+            ps.setDate(1, Date.valueOf(sketch.visitDate()));
+            ps.setBytes(2, sketch.sketch());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, sketch.shortUrlId());
+        });
+    }
+
+    /**
+     * @return the number of daily sketches deleted
+     */
+    public int deleteDailySketchesBefore(LocalDate day) {
+        return jdbcTemplate.update("DELETE FROM short_url_daily_visitors WHERE visit_date < ?", Date.valueOf(day));
+    }
+
+    private Map<Long, byte[]> queryTotalSketches(String sql, Collection<Long> shortUrlIds) {
+        Map<Long, byte[]> sketches = new HashMap<>();
+        if (shortUrlIds.isEmpty()) {
+            return sketches;
+        }
+        jdbcClient.sql(sql)
+                .param("ids", shortUrlIds)
+                .query(rs -> {
+                    sketches.put(rs.getLong("short_url_id"), rs.getBytes("sketch"));
+                });
+        return sketches;
+    }
+
+    private static DailyVisitorSketch mapDailySketch(ResultSet rs, int rowNum) throws SQLException {
+        return new DailyVisitorSketch(rs.getLong("short_url_id"), rs.getDate("visit_date").toLocalDate(),
+                rs.getBytes("sketch"));
+    }
+}
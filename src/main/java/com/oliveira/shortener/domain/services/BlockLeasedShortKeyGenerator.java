@@ -0,0 +1,65 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.domain.repository.ShortKeyBlockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issues keys from counter ranges leased from the {@code short_key_block_seq} database sequence.
+ * Each node owns the blocks it leased, so keys are unique without probing {@code short_urls};
+ * the counters are passed through {@link ShortKeyCodec} so the keys are not sequential.
+ */
+public class BlockLeasedShortKeyGenerator implements ShortKeyGenerator {
+    private static final Logger log = LoggerFactory.getLogger(BlockLeasedShortKeyGenerator.class);
+
+    private final ShortKeyBlockRepository blockRepository;
+    private final ShortKeyCodec codec;
+    private final int blockSize;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0);
+
+    public BlockLeasedShortKeyGenerator(ShortKeyBlockRepository blockRepository, ShortKeyCodec codec, int blockSize) {
+        this.blockRepository = blockRepository;
+        this.codec = codec;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String nextKey() {
+        while (true) {
+            Block current = block;
+            long counter = current.cursor.getAndIncrement();
+            if (counter < current.end) {
+                return codec.encode(counter);
+            }
+            leaseLock.lock();
+            try {
+                if (block == current) {
+                    block = leaseBlock();
+                }
+            } finally {
+                leaseLock.unlock();
+            }
+        }
+    }
+
+    private Block leaseBlock() {
+        long blockNumber = blockRepository.nextBlockNumber();
+        long start = Math.multiplyExact(blockNumber, (long) blockSize);
+        log.debug("Leased short key block {} [{}, {})", blockNumber, start, start + blockSize);
+        return new Block(start, start + blockSize);
+    }
+
+    private static final class Block {
+        private final AtomicLong cursor;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.oliveira.shortener.domain.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oliveira.shortener.domain.models.DataFormat;
+import com.oliveira.shortener.domain.models.BulkShortUrlRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads bulk rows one line at a time, so only the current line is ever held in memory.
+ * <ul>
+ *     <li>CSV: {@code original_url[,is_private[,expiration_in_days]]}, optional header, RFC 4180 quoting
+ *     on a single line;</li>
+ *     <li>NDJSON: {@code {"originalUrl": "...", "isPrivate": false, "expirationInDays": 30}} per line.</li>
+ * </ul>
+ * Blank lines are skipped. A line longer than {@link #MAX_LINE_LENGTH} characters is skipped without being
+ * buffered and reported as a malformed row.
+ */
+public class BulkRowReader {
+    static final int MAX_LINE_LENGTH = 8192;
+
+    private final BufferedReader reader;
+    private final StringBuilder buffer = new StringBuilder();
+    private final DataFormat format;
+    private final ObjectMapper objectMapper;
+    private long line;
+    private boolean tooLong;
+
+    public BulkRowReader(BufferedReader reader, DataFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next row, or {@code null} at the end of the input.
+     */
+    public BulkShortUrlRow next() throws IOException {
+        String text;
+        do {
+            text = readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            if (tooLong) {
+                return BulkShortUrlRow.invalid(line, "Line is longer than " + MAX_LINE_LENGTH + " characters");
+            }
+        } while (text.isBlank() || (format == DataFormat.CSV && line == 1 && isCsvHeader(text)));
+        return format == DataFormat.CSV ? parseCsv(text) : parseJson(text);
+    }
+
+    /**
+     * Like {@link BufferedReader#readLine()}, but keeps at most {@link #MAX_LINE_LENGTH} characters; the rest of a
+     * longer line is skipped and {@link #tooLong} is set.
+     */
+    private String readLine() throws IOException {
+        buffer.setLength(0);
+        tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            }
+            if (buffer.length() == MAX_LINE_LENGTH) {
+                tooLong = true;
+            } else {
+                buffer.append((char) c);
+            }
+        }
+        if (c == -1 && buffer.isEmpty() && !tooLong) {
+            return null;
+        }
+        return buffer.toString();
+    }
+
+    private BulkShortUrlRow parseJson(String text) {
+        try {
+            JsonNode node = objectMapper.readTree(text);
+            if (!node.isObject() || !node.path("originalUrl").isTextual()) {
+                return BulkShortUrlRow.invalid(line, "originalUrl is required");
+            }
+            JsonNode isPrivate = node.path("isPrivate");
+            JsonNode expirationInDays = node.path("expirationInDays");
+            return new BulkShortUrlRow(line,
+                    node.get("originalUrl").asText().trim(),
+                    isPrivate.isBoolean() ? isPrivate.asBoolean() : null,
+                    expirationInDays.isInt() ? expirationInDays.asInt() : null,
+                    null);
+        } catch (IOException e) {
+            return BulkShortUrlRow.invalid(line, "Malformed JSON");
+        }
+    }
+
+    private BulkShortUrlRow parseCsv(String text) {
+        List<String> fields = splitCsv(text);
+        if (fields == null || fields.isEmpty() || fields.getFirst().isBlank()) {
+            return BulkShortUrlRow.invalid(line, "original_url is required");
+        }
+        Boolean isPrivate = null;
+        Integer expirationInDays = null;
+        if (fields.size() > 1 && !fields.get(1).isBlank()) {
+            isPrivate = Boolean.parseBoolean(fields.get(1).trim());
+        }
+        if (fields.size() > 2 && !fields.get(2).isBlank()) {
+            try {
+                expirationInDays = Integer.parseInt(fields.get(2).trim());
+            } catch (NumberFormatException e) {
+                return BulkShortUrlRow.invalid(line, "expiration_in_days must be a number");
+            }
+        }
+        return new BulkShortUrlRow(line, fields.getFirst().trim(), isPrivate, expirationInDays, null);
+    }
+
+    private static boolean isCsvHeader(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).startsWith("original_url");
+    }
+
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
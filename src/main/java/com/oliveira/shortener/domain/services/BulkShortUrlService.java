@@ -0,0 +1,173 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.events.ShortUrlCreatedEvent;
+import com.oliveira.shortener.domain.models.BulkShortUrlResult;
+import com.oliveira.shortener.domain.models.BulkShortUrlRow;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.repository.BulkShortUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+
+/**
+ * Creates short urls from a stream of rows, {@code app.bulk.batch-size} rows at a time: the rows of a batch are
+ * validated concurrently, then inserted with one JDBC batch in one transaction, and their results handed out
+ * before the next batch is read. Memory use is bounded by the batch size, not by the upload.
+ */
+@Service
+public class BulkShortUrlService {
+    private static final Logger log = LoggerFactory.getLogger(BulkShortUrlService.class);
+
+    private final BulkShortUrlRepository bulkShortUrlRepository;
+    private final ShortKeyGenerator shortKeyGenerator;
+    private final UrlExistenceValidator urlExistenceValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationProperties properties;
+    private final ApplicationProperties.Bulk config;
+
+    public BulkShortUrlService(BulkShortUrlRepository bulkShortUrlRepository, ShortKeyGenerator shortKeyGenerator,
+                               UrlExistenceValidator urlExistenceValidator, TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher, ApplicationProperties properties) {
+        this.bulkShortUrlRepository = bulkShortUrlRepository;
+        this.shortKeyGenerator = shortKeyGenerator;
+        this.urlExistenceValidator = urlExistenceValidator;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.config = properties.bulk();
+    }
+
+    public void createShortUrls(Long userId, BulkRowReader reader, Consumer<List<BulkShortUrlResult>> results)
+            throws IOException {
+        List<BulkShortUrlRow> batch = new ArrayList<>(config.batchSize());
+        long rows = 0;
+        BulkShortUrlRow row;
+        while ((row = reader.next()) != null) {
+            if (++rows > config.maxRows()) {
+                results.accept(List.of(BulkShortUrlResult.invalid(row,
+                        "Row limit of " + config.maxRows() + " reached, remaining rows were not read")));
+                break;
+            }
+            batch.add(row);
+            if (batch.size() == config.batchSize()) {
+                results.accept(createBatch(userId, batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            results.accept(createBatch(userId, batch));
+        }
+    }
+
+    private List<BulkShortUrlResult> createBatch(Long userId, List<BulkShortUrlRow> batch) {
+        BulkShortUrlResult[] results = new BulkShortUrlResult[batch.size()];
+        List<CompletableFuture<Boolean>> checks = validate(batch, results);
+
+        Instant now = Instant.now();
+        List<Integer> accepted = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (results[i] == null) {
+                if (checks.get(i) != null && !exists(checks.get(i))) {
+                    results[i] = BulkShortUrlResult.invalid(batch.get(i), "URL does not exist");
+                } else {
+                    accepted.add(i);
+                }
+            }
+        }
+        if (accepted.isEmpty()) {
+            return List.of(results);
+        }
+
+        try {
+            List<RedirectEntry> entries = transactionTemplate.execute(status -> {
+                long[] ids = bulkShortUrlRepository.allocateIds(accepted.size());
+                List<RedirectEntry> created = new ArrayList<>(accepted.size());
+                for (int i = 0; i < accepted.size(); i++) {
+                    BulkShortUrlRow row = batch.get(accepted.get(i));
+                    Instant expiresAt = row.expirationInDays() != null ? now.plus(row.expirationInDays(), DAYS) : null;
+                    created.add(new RedirectEntry(ids[i], shortKeyGenerator.nextKey(), row.originalUrl(), expiresAt,
+                            Boolean.TRUE.equals(row.isPrivate()), userId));
+                }
+                bulkShortUrlRepository.insert(created, now, config.batchSize());
+                created.forEach(entry -> eventPublisher.publishEvent(new ShortUrlCreatedEvent(entry)));
+                return created;
+            });
+            for (int i = 0; i < accepted.size(); i++) {
+                int index = accepted.get(i);
+                results[index] = BulkShortUrlResult.created(batch.get(index), entries.get(i).shortKey());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to insert a bulk batch of {} short urls", accepted.size(), e);
+            for (int index : accepted) {
+                results[index] = BulkShortUrlResult.failed(batch.get(index), "Could not be stored");
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Fills {@code results} for rows that are rejected outright and starts an existence check for the others,
+     * with at most {@code app.bulk.validation-concurrency} checks in flight.
+     */
+    private List<CompletableFuture<Boolean>> validate(List<BulkShortUrlRow> batch, BulkShortUrlResult[] results) {
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>(batch.size());
+        Semaphore inFlight = new Semaphore(config.validationConcurrency());
+        for (int i = 0; i < batch.size(); i++) {
+            BulkShortUrlRow row = batch.get(i);
+            String error = rowError(row);
+            if (error != null) {
+                results[i] = BulkShortUrlResult.invalid(row, error);
+                checks.add(null);
+            } else if (properties.validateOriginalUrl()) {
+                inFlight.acquireUninterruptibly();
+                checks.add(urlExistenceValidator.checkAsync(row.originalUrl())
+                        .whenComplete((exists, e) -> inFlight.release()));
+            } else {
+                checks.add(null);
+            }
+        }
+        return checks;
+    }
+
+    private static String rowError(BulkShortUrlRow row) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        try {
+            String scheme = UrlNormalizer.normalize(row.originalUrl()).getScheme();
+            if (!"http".equals(scheme) && !"https".equals(scheme)) {
+                return "Only http and https URLs are supported";
+            }
+        } catch (URISyntaxException | RuntimeException e) {
+            return "Malformed URL";
+        }
+        if (row.expirationInDays() != null && (row.expirationInDays() < 1 || row.expirationInDays() > 365)) {
+            return "expirationInDays must be between 1 and 365";
+        }
+        return null;
+    }
+
+    private static boolean exists(CompletableFuture<Boolean> check) {
+        try {
+            return check.join();
+        } catch (CompletionException e) {
+            return false;
+        }
+    }
+}
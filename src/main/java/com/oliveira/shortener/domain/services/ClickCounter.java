@@ -0,0 +1,113 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.repository.ClickCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind click counting. Redirects only bump a {@link LongAdder} per short URL id, which is
+ * dropped again once a flush finds it idle;
+ * a single background thread drains the deltas into batched {@code click_count = click_count + ?}
+ * updates every {@code app.click-counter.flush-interval} and once more on shutdown. Each flush runs in one
+ * transaction, so a failed one can be re-queued in full without counting any click twice.
+ */
+@Component
+public class ClickCounter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ClickCounter.class);
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ClickCountRepository clickCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.ClickCounter config;
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public ClickCounter(ClickCountRepository clickCountRepository, TransactionTemplate transactionTemplate,
+                        ApplicationProperties properties) {
+        this.clickCountRepository = clickCountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.config = properties.clickCounter();
+    }
+
+    public void increment(Long shortUrlId) {
+        // inside compute, so flush cannot drop the adder between the lookup and the increment
+        pending.compute(shortUrlId, (id, adder) -> {
+            LongAdder counter = adder != null ? adder : new LongAdder();
+            counter.increment();
+            return counter;
+        });
+    }
+
+    void flush() {
+        List<Map.Entry<Long, Long>> deltas = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long clicks = entry.getValue().sumThenReset();
+            if (clicks == 0) {
+                // idle since the last flush; increments take the same lock, so none can be lost
+                pending.computeIfPresent(entry.getKey(), (id, adder) -> adder.sum() == 0 ? null : adder);
+            } else {
+                deltas.add(Map.entry(entry.getKey(), clicks));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> clickCountRepository.addClickCounts(deltas, config.batchSize()));
+            log.debug("Flushed click counts for {} short urls", deltas.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush click counts for {} short urls, will retry", deltas.size(), e);
+            deltas.forEach(delta -> pending.computeIfAbsent(delta.getKey(), id -> new LongAdder()).add(delta.getValue()));
+        }
+    }
+
+    @Override
+    public void start() {
+        long intervalMillis = config.flushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "click-count-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // the web server stops at DEFAULT_PHASE - 2048; stop strictly after it so clicks from in-flight
+        // redirects are drained too
+        return DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,110 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.events.ShortUrlsDeletedEvent;
+import com.oliveira.shortener.domain.models.ExpiredShortUrl;
+import com.oliveira.shortener.domain.repository.ExpiredShortUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired short urls in small chunks, each in its own short transaction, pausing between chunks
+ * and capping the chunks per run so a large backlog never holds long locks or saturates the database.
+ * Deleted keys are published as {@link ShortUrlsDeletedEvent} so caches and the key filter follow.
+ * Deleting a link also deletes its daily click stats and visitor sketches (ON DELETE CASCADE), so the
+ * analytics of a link are gone once it expires; export them first if they must outlive the link.
+ */
+@Component
+public class ExpiredShortUrlReaper implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ExpiredShortUrlReaper.class);
+
+    private final ExpiredShortUrlRepository expiredShortUrlRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationProperties.Expiry config;
+    private ScheduledExecutorService reaper;
+    private volatile boolean running;
+
+    public ExpiredShortUrlReaper(ExpiredShortUrlRepository expiredShortUrlRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ApplicationProperties properties) {
+        this.expiredShortUrlRepository = expiredShortUrlRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.config = properties.expiry();
+    }
+
+    int reap() {
+        Instant now = Instant.now();
+        int total = 0;
+        try {
+            for (int chunk = 0; chunk < config.reaperMaxChunksPerRun() && running; chunk++) {
+                Integer deleted = transactionTemplate.execute(status -> deleteChunk(now));
+                total += deleted;
+                if (deleted < config.reaperChunkSize()) {
+                    break;
+                }
+                Thread.sleep(config.reaperChunkPause().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Failed to reap expired short urls", e);
+        }
+        if (total > 0) {
+            log.info("Reaped {} expired short urls", total);
+        }
+        return total;
+    }
+
+    private int deleteChunk(Instant now) {
+        List<ExpiredShortUrl> expired = expiredShortUrlRepository.lockExpired(now, config.reaperChunkSize());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<String> deletedKeys = expiredShortUrlRepository.delete(expired);
+        if (!deletedKeys.isEmpty()) {
+            eventPublisher.publishEvent(new ShortUrlsDeletedEvent(deletedKeys));
+        }
+        return expired.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!config.reaperEnabled()) {
+            return;
+        }
+        long intervalMillis = config.reaperInterval().toMillis();
+        reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "expired-short-url-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.scheduleWithFixedDelay(this::reap, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
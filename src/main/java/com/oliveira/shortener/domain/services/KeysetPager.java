@@ -0,0 +1,57 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.domain.models.PageCursor;
+import com.oliveira.shortener.domain.models.PageQuery;
+import com.oliveira.shortener.domain.models.PagedResult;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyset pages over a listing ordered by {@code (createdAt DESC, id DESC)}. {@code after} must return the rows
+ * below the cursor in that order, {@code before} the rows above it in the opposite order. Fetches one row more
+ * than the page size to learn whether another page follows, so no OFFSET and (unless configured) no count
+ * query is needed.
+ */
+final class KeysetPager {
+
+    private KeysetPager() {
+    }
+
+    /**
+     * @param count the total, or null to leave it uncounted
+     */
+    static <T> PagedResult<T> page(PageQuery query,
+                                   BiFunction<PageCursor, Limit, List<T>> after,
+                                   BiFunction<PageCursor, Limit, List<T>> before,
+                                   Function<T, PageCursor> cursorOf,
+                                   LongSupplier count) {
+        int size = query.pageSize();
+        boolean backward = query.before() != null;
+        List<T> rows;
+        if (backward) {
+            rows = new ArrayList<>(before.apply(PageCursor.decode(query.before()), Limit.of(size + 1)));
+        } else {
+            PageCursor cursor = query.after() != null ? PageCursor.decode(query.after()) : PageCursor.FIRST;
+            rows = new ArrayList<>(after.apply(cursor, Limit.of(size + 1)));
+        }
+        boolean more = rows.size() > size;
+        if (more) {
+            rows.remove(rows.size() - 1);
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+        boolean hasNext = backward || more;
+        boolean hasPrevious = backward ? more : query.after() != null;
+        String nextCursor = hasNext && !rows.isEmpty() ? cursorOf.apply(rows.get(rows.size() - 1)).encode() : null;
+        String previousCursor = hasPrevious && !rows.isEmpty() ? cursorOf.apply(rows.get(0)).encode() : null;
+        long totalElements = count != null ? count.getAsLong() : -1;
+        return PagedResult.ofCursors(rows, size, totalElements, nextCursor, previousCursor);
+    }
+}
@@ -0,0 +1,44 @@
+package com.oliveira.shortener.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oliveira.shortener.domain.events.UserUpdatedEvent;
+import com.oliveira.shortener.domain.models.AuthenticatedUser;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Tracks when a user's data last changed so principals loaded before that point
+ * can be refreshed on the user's next request. A change is forgotten after the session timeout:
+ * by then every session that held an older principal has either been refreshed or expired.
+ */
+@Component
+public class PrincipalInvalidations {
+    private final Cache<Long, Instant> changedAt;
+
+    public PrincipalInvalidations(ServerProperties serverProperties) {
+        Duration sessionTimeout = serverProperties.getServlet().getSession().getTimeout();
+        this.changedAt = Caffeine.newBuilder()
+                .expireAfterWrite(sessionTimeout != null ? sessionTimeout : Duration.ofMinutes(30))
+                .build();
+    }
+
+    public void invalidate(Long userId) {
+        changedAt.put(userId, Instant.now());
+    }
+
+    public boolean isStale(AuthenticatedUser user) {
+        Instant changed = changedAt.getIfPresent(user.getId());
+        return changed != null && !user.getLoadedAt().isAfter(changed);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        invalidate(event.userId());
+    }
+}
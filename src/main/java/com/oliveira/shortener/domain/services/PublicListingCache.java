@@ -0,0 +1,104 @@
+package com.oliveira.shortener.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.events.ShortUrlCreatedEvent;
+import com.oliveira.shortener.domain.events.ShortUrlsDeletedEvent;
+import com.oliveira.shortener.domain.models.PageQuery;
+import com.oliveira.shortener.domain.models.PagedResult;
+import com.oliveira.shortener.domain.models.ShortUrlDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of the public listing pages behind the home page. Offset pages up to {@code cached-pages}
+ * and keyset pages reached forward from the first one are cached, at most {@code cached-pages} of them: only an
+ * {@code after} cursor handed out by a page of this cache is a cache key, so crafted cursors always go to the
+ * database. Concurrent misses on a page share one load. Everything is dropped once a public link is created or any
+ * link is deleted, so the time-to-live only bounds how long a link that just expired stays listed.
+ */
+@Component
+public class PublicListingCache {
+
+    private final Cache<PageQuery, PagedResult<ShortUrlDto>> pages;
+    // next cursor of a cached page -> number of the page it leads to
+    private final Cache<String, Integer> issuedCursors;
+    private final int cachedPages;
+    private final List<Runnable> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public PublicListingCache(ApplicationProperties properties) {
+        this(properties.publicListing());
+    }
+
+    PublicListingCache(ApplicationProperties.PublicListing config) {
+        this.pages = config.cacheEnabled()
+                ? Caffeine.newBuilder()
+                    .maximumSize(config.cachedPages())
+                    .expireAfterWrite(config.timeToLive())
+                    .build()
+                : null;
+        this.issuedCursors = config.cacheEnabled()
+                ? Caffeine.newBuilder()
+                    .maximumSize(config.cachedPages())
+                    .expireAfterWrite(config.timeToLive())
+                    .build()
+                : null;
+        this.cachedPages = config.cachedPages();
+    }
+
+    public PagedResult<ShortUrlDto> get(PageQuery query, Function<PageQuery, PagedResult<ShortUrlDto>> loader) {
+        if (pages == null || !isCacheable(query)) {
+            return loader.apply(query);
+        }
+        return pages.get(query, q -> {
+            PagedResult<ShortUrlDto> result = loader.apply(q);
+            int pageNumber = q.after() == null ? 1 : issuedCursors.asMap().getOrDefault(q.after(), cachedPages);
+            if (result.nextCursor() != null && pageNumber < cachedPages) {
+                issuedCursors.put(result.nextCursor(), pageNumber + 1);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Registers a callback run whenever the cached pages are dropped, for caches derived from them.
+     */
+    public void onInvalidate(Runnable listener) {
+        invalidationListeners.add(listener);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShortUrlCreated(ShortUrlCreatedEvent event) {
+        if (!Boolean.TRUE.equals(event.entry().isPrivate())) {
+            invalidateAll();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShortUrlsDeleted(ShortUrlsDeletedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        if (pages != null) {
+            pages.invalidateAll();
+            issuedCursors.invalidateAll();
+        }
+        invalidationListeners.forEach(Runnable::run);
+    }
+
+    private boolean isCacheable(PageQuery query) {
+        if (query.before() != null) {
+            return false;
+        }
+        return query.after() == null ? query.page() <= cachedPages : issuedCursors.getIfPresent(query.after()) != null;
+    }
+}
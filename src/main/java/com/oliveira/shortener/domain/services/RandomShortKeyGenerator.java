@@ -0,0 +1,49 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.domain.repository.ShortUrlRepository;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+public class RandomShortKeyGenerator implements ShortKeyGenerator {
+
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int SHORT_KEY_LENGTH = 6;
+    // DRBG instead of the default NativePRNG, whose synchronized nextBytes may read /dev/urandom
+    // and so pins a virtual thread's carrier during file I/O
+    private static final SecureRandom RANDOM = createRandom();
+
+    private final ShortUrlRepository shortUrlRepository;
+
+    public RandomShortKeyGenerator(ShortUrlRepository shortUrlRepository) {
+        this.shortUrlRepository = shortUrlRepository;
+    }
+
+    @Override
+    public String nextKey() {
+        String shortKey;
+        do {
+            shortKey = generateRandomShortKey();
+        } while (shortUrlRepository.existsByShortKey(shortKey));
+        return shortKey;
+    }
+
+    public static String generateRandomShortKey() {
+        // one draw for all characters; 63 random bits are far more than 62^6 needs
+        long bits = RANDOM.nextLong() >>> 1;
+        char[] key = new char[SHORT_KEY_LENGTH];
+        for (int i = 0; i < SHORT_KEY_LENGTH; i++) {
+            key[i] = CHARACTERS.charAt((int) (bits % CHARACTERS.length()));
+            bits /= CHARACTERS.length();
+        }
+        return new String(key);
+    }
+
+    private static SecureRandom createRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
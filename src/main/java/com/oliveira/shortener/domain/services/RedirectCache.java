@@ -0,0 +1,144 @@
+package com.oliveira.shortener.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.compact.CompactRedirectTable;
+import com.oliveira.shortener.domain.events.ShortUrlsDeletedEvent;
+import com.oliveira.shortener.domain.models.RedirectCacheStats;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.timing.LinkExpiryWheel;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded shortKey -> {@link RedirectEntry} cache used by the redirect path.
+ * Eviction is Caffeine's W-TinyLFU, so links that are hit often survive bursts of one-off keys.
+ * Entries live for {@code time-to-live}; links expiring sooner are dropped by the {@link LinkExpiryWheel}.
+ * With {@code compact} the entries are kept in a {@link CompactRedirectTable} instead, which holds no
+ * objects per link and evicts with CLOCK rather than W-TinyLFU.
+ */
+@Component
+public class RedirectCache {
+
+    private final Cache<String, RedirectEntry> cache;
+    private final CompactRedirectTable table;
+    private final LongAdder tableHits = new LongAdder();
+    private final LongAdder tableMisses = new LongAdder();
+    private final LinkExpiryWheel expiryWheel;
+    private final Duration timeToLive;
+    private final long maximumSize;
+
+    public RedirectCache(ApplicationProperties properties, LinkExpiryWheel expiryWheel) {
+        ApplicationProperties.RedirectCache config = properties.redirectCache();
+        this.table = config.enabled() && config.compact()
+                ? new CompactRedirectTable(config.maximumSize(), config.timeToLive())
+                : null;
+        this.cache = config.enabled() && table == null
+                ? Caffeine.newBuilder()
+                    .maximumSize(config.maximumSize())
+                    .expireAfterWrite(config.timeToLive())
+                    .recordStats()
+                    .build()
+                : null;
+        this.expiryWheel = expiryWheel;
+        this.timeToLive = config.timeToLive();
+        this.maximumSize = config.maximumSize();
+        if (isEnabled()) {
+            expiryWheel.onExpired(this::invalidate);
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null || table != null;
+    }
+
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    public RedirectEntry get(String shortKey) {
+        if (table != null) {
+            RedirectEntry entry = table.get(shortKey);
+            (entry != null ? tableHits : tableMisses).increment();
+            return entry;
+        }
+        return cache != null ? cache.getIfPresent(shortKey) : null;
+    }
+
+    public void put(RedirectEntry entry) {
+        Instant now = Instant.now();
+        if (isEnabled() && !entry.isExpired(now)) {
+            if (table != null) {
+                if (!table.put(entry)) {
+                    return;
+                }
+            } else {
+                cache.put(entry.shortKey(), entry);
+            }
+            if (entry.expiresAt() != null && entry.expiresAt().isBefore(now.plus(timeToLive))) {
+                expiryWheel.schedule(entry.shortKey(), entry.expiresAt());
+            }
+        }
+    }
+
+    public void invalidate(String shortKey) {
+        if (table != null) {
+            table.remove(shortKey);
+        } else if (cache != null) {
+            cache.invalidate(shortKey);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShortUrlsDeleted(ShortUrlsDeletedEvent event) {
+        if (table != null) {
+            event.shortKeys().forEach(table::remove);
+        } else if (cache != null) {
+            cache.invalidateAll(event.shortKeys());
+        }
+    }
+
+    public RedirectCacheStats stats() {
+        if (table != null) {
+            return new RedirectCacheStats(true, true, table.size(), tableHits.sum(), tableMisses.sum(),
+                    table.evictionCount(), table.footprintBytes(), table.objectGraphBytes());
+        }
+        if (cache == null) {
+            return new RedirectCacheStats(false, false, 0, 0, 0, 0, 0, 0);
+        }
+        CacheStats stats = cache.stats();
+        return new RedirectCacheStats(true, false, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), -1, -1);
+    }
+
+    /**
+     * Heap estimate of the cached entries, for comparing the two representations; walks the whole cache
+     * when it is not compact.
+     */
+    public long objectGraphBytes() {
+        if (table != null) {
+            return table.objectGraphBytes();
+        }
+        if (cache == null) {
+            return 0;
+        }
+        long entries = 0;
+        long urlBytes = 0;
+        long withOwner = 0;
+        long withExpiry = 0;
+        for (RedirectEntry entry : cache.asMap().values()) {
+            entries++;
+            urlBytes += entry.originalUrl().length();
+            withOwner += entry.ownerId() != null ? 1 : 0;
+            withExpiry += entry.expiresAt() != null ? 1 : 0;
+        }
+        return CompactRedirectTable.estimateObjectGraphBytes(entries, urlBytes, withOwner, withExpiry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.repository.ShortUrlStreamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Loads the hottest links into the {@link RedirectCache} while the application starts. Runners complete
+ * before Spring Boot switches readiness to ACCEPTING_TRAFFIC, so a load balancer polling
+ * {@code /actuator/health/readiness} only sends traffic once the cache is warm (or the time budget is spent).
+ * Most of the top-k are picked by {@code click_count}; {@code recent-fraction} of them are the newest links,
+ * which have not collected clicks yet but are the ones being shared right now.
+ */
+@Component
+public class RedirectCacheWarmup implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(RedirectCacheWarmup.class);
+
+    private final ShortUrlStreamRepository streamRepository;
+    private final RedirectCache redirectCache;
+    private final ApplicationProperties.Warmup config;
+
+    public RedirectCacheWarmup(ShortUrlStreamRepository streamRepository, RedirectCache redirectCache,
+                               ApplicationProperties properties) {
+        this.streamRepository = streamRepository;
+        this.redirectCache = redirectCache;
+        this.config = properties.warmup();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!config.enabled() || !redirectCache.isEnabled() || config.topK() == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Instant deadline = now.plus(config.timeBudget());
+        int topK = (int) Math.min(config.topK(), redirectCache.maximumSize());
+        int recent = (int) Math.round(topK * config.recentFraction());
+        // a link can be both hot and new; count it once
+        Set<String> loaded = new HashSet<>();
+        Consumer<RedirectEntry> load = entry -> {
+            if (loaded.add(entry.shortKey())) {
+                redirectCache.put(entry);
+            }
+        };
+        try {
+            streamRepository.forEachHotRedirectEntry(now, false, topK - recent, deadline, load);
+            if (recent > 0 && Instant.now().isBefore(deadline)) {
+                streamRepository.forEachHotRedirectEntry(now, true, recent, deadline, load);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Redirect cache warm-up stopped after {} links: {}", loaded.size(), e.getMessage());
+        }
+        log.info("Warmed redirect cache with {} links in {} ms{}", loaded.size(), (System.nanoTime() - start) / 1_000_000,
+                Instant.now().isBefore(deadline) ? "" : " (time budget of " + config.timeBudget() + " reached)");
+    }
+}
@@ -1,33 +1,51 @@
 package com.oliveira.shortener.domain.services;
 
 import com.oliveira.shortener.domain.entities.User;
+import com.oliveira.shortener.domain.events.UserUpdatedEvent;
+import com.oliveira.shortener.domain.models.AuthenticatedUser;
 import com.oliveira.shortener.domain.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
-public class SecurityUserDetailsService implements UserDetailsService {
+public class SecurityUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public SecurityUserDetailsService(UserRepository userRepository) {
+    public SecurityUserDetailsService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public AuthenticatedUser loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(username)
                 .orElseThrow(
                         () -> new UsernameNotFoundException("User not found with email: " + username)
                 );
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                List.of(new SimpleGrantedAuthority(user.getRole().name()))
+                user.getName(),
+                user.getRole()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Stores a password re-hashed at the configured BCrypt strength after a successful sign-in.
+     * The user's other sessions pick up the change on their next request.
+     */
+    @Override
+    public AuthenticatedUser updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        AuthenticatedUser current = (AuthenticatedUser) user;
+        eventPublisher.publishEvent(new UserUpdatedEvent(current.getId()));
+        return new AuthenticatedUser(current.getId(), current.getUsername(), newPassword, current.getName(),
+                current.getRole());
+    }
+}
@@ -0,0 +1,103 @@
+package com.oliveira.shortener.domain.services;
+
+/**
+ * Reversible mapping between counter values and fixed-width base62 short keys.
+ * <p>
+ * Counters are scrambled with a keyed 4-round Feistel network over 42 bits and cycle-walked
+ * back into {@code [0, 62^7)}, so consecutive counters produce unrelated-looking keys while
+ * the mapping stays a bijection. Keys are always {@value #KEY_LENGTH} characters long, which
+ * keeps them disjoint from the 6-character keys issued by {@link RandomShortKeyGenerator}.
+ */
+public class ShortKeyCodec {
+
+    public static final int KEY_LENGTH = 7;
+    public static final long CAPACITY = 3_521_614_606_208L; // 62^7
+
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+    private static final int HALF_BITS = 21;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public ShortKeyCodec(long secret) {
+        long seed = secret;
+        for (int i = 0; i < ROUNDS; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(seed);
+        }
+    }
+
+    public String encode(long counter) {
+        if (counter < 0 || counter >= CAPACITY) {
+            throw new IllegalArgumentException("Counter out of range: " + counter);
+        }
+        long value = counter;
+        do {
+            value = permute(value);
+        } while (value >= CAPACITY);
+        char[] key = new char[KEY_LENGTH];
+        for (int i = KEY_LENGTH - 1; i >= 0; i--) {
+            key[i] = ALPHABET[(int) (value % 62)];
+            value /= 62;
+        }
+        return new String(key);
+    }
+
+    public long decode(String shortKey) {
+        if (shortKey.length() != KEY_LENGTH) {
+            throw new IllegalArgumentException("Not a counter short key: " + shortKey);
+        }
+        long value = 0;
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            int digit = digit(shortKey.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a counter short key: " + shortKey);
+            }
+            value = value * 62 + digit;
+        }
+        do {
+            value = unpermute(value);
+        } while (value >= CAPACITY);
+        return value;
+    }
+
+    private long permute(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int i = 0; i < ROUNDS; i++) {
+            long next = left ^ round(right, i);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private long unpermute(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long previous = right ^ round(left, i);
+            right = left;
+            left = previous;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private long round(long half, int i) {
+        return mix(half ^ roundKeys[i]) & HALF_MASK;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int digit(char c) {
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= 'a' && c <= 'z') return c - 'a' + 26;
+        if (c >= '0' && c <= '9') return c - '0' + 52;
+        return -1;
+    }
+}
@@ -0,0 +1,140 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.events.ShortUrlCreatedEvent;
+import com.oliveira.shortener.domain.events.ShortUrlsDeletedEvent;
+import com.oliveira.shortener.domain.models.KeyFilterStats;
+import com.oliveira.shortener.domain.repository.ShortUrlStreamRepository;
+import com.oliveira.shortener.domain.sketch.CountingBloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Membership guard for short keys, so lookups for keys that were never issued (scanners, typos)
+ * are answered without a database query. Backed by a counting Bloom filter built from
+ * {@code short_urls} after startup; until it is loaded every key is reported as possibly present.
+ * Keys created and deleted on this node are applied right away; keys created on other nodes are only
+ * seen once the filter is rebuilt every {@code app.key-filter.refresh-interval}, and get a 404 here until
+ * then. Off by default for that reason; enable it for a single node or when that delay is acceptable.
+ */
+@Component
+public class ShortKeyFilter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ShortKeyFilter.class);
+
+    private final ShortUrlStreamRepository shortUrlStreamRepository;
+    private final ApplicationProperties.KeyFilter config;
+    private final AtomicLong approximateKeys = new AtomicLong();
+    private final LongAdder rejections = new LongAdder();
+    private volatile CountingBloomFilter filter;
+    private volatile CountingBloomFilter building;
+    private ScheduledExecutorService loader;
+
+    public ShortKeyFilter(ShortUrlStreamRepository shortUrlStreamRepository, ApplicationProperties properties) {
+        this.shortUrlStreamRepository = shortUrlStreamRepository;
+        this.config = properties.keyFilter();
+    }
+
+    public boolean mightContain(String shortKey) {
+        CountingBloomFilter current = filter;
+        if (current == null || current.mightContain(shortKey)) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!config.enabled()) {
+            return;
+        }
+        loader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "short-key-filter-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        loader.scheduleWithFixedDelay(this::rebuild, 0, config.refreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Builds a new filter from {@code short_urls} and swaps it in. Keys created on this node meanwhile
+     * go into both filters, since the scan may miss rows that commit after it passed them.
+     */
+    void rebuild() {
+        long start = System.nanoTime();
+        CountingBloomFilter next = new CountingBloomFilter(config.expectedKeys(), config.falsePositiveRate());
+        building = next;
+        try {
+            AtomicLong keys = new AtomicLong();
+            shortUrlStreamRepository.forEachShortKey(shortKey -> {
+                next.add(shortKey);
+                keys.incrementAndGet();
+            });
+            filter = next;
+            approximateKeys.set(keys.get());
+            log.info("Short key filter loaded {} keys in {} ms ({} KB)", keys.get(),
+                    (System.nanoTime() - start) / 1_000_000, next.memoryBytes() / 1024);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild short key filter, keeping the previous one", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    // added before the insert commits, so a committed key is never rejected
+    @EventListener
+    public void onShortUrlCreated(ShortUrlCreatedEvent event) {
+        String shortKey = event.entry().shortKey();
+        CountingBloomFilter next = building;
+        CountingBloomFilter current = filter;
+        if (current != null) {
+            current.add(shortKey);
+            approximateKeys.incrementAndGet();
+        }
+        if (next != null && next != current) {
+            next.add(shortKey);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShortUrlsDeleted(ShortUrlsDeletedEvent event) {
+        // a filter being rebuilt may or may not have seen a deleted key; keeping it there is the safe side
+        CountingBloomFilter current = filter;
+        if (current != null) {
+            for (String shortKey : event.shortKeys()) {
+                current.remove(shortKey);
+                approximateKeys.decrementAndGet();
+            }
+        }
+    }
+
+    public KeyFilterStats stats() {
+        CountingBloomFilter current = filter;
+        if (!config.enabled()) {
+            return new KeyFilterStats(false, false, 0, 0, 0, 0, 0);
+        }
+        if (current == null) {
+            return new KeyFilterStats(true, false, 0, 0, 0, 0, rejections.sum());
+        }
+        return new KeyFilterStats(true, true, current.counters(), current.hashFunctions(), current.memoryBytes(),
+                approximateKeys.get(), rejections.sum());
+    }
+
+    @Override
+    public void close() {
+        if (loader != null) {
+            loader.shutdownNow();
+        }
+    }
+}
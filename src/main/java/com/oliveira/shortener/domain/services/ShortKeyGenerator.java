@@ -0,0 +1,6 @@
+package com.oliveira.shortener.domain.services;
+
+public interface ShortKeyGenerator {
+
+    String nextKey();
+}
@@ -0,0 +1,160 @@
+package com.oliveira.shortener.domain.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.DataFormat;
+import com.oliveira.shortener.domain.repository.ShortUrlStreamRepository;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+/**
+ * Writes link inventories straight from a JDBC cursor to the response, one row at a time:
+ * no entities, no DTOs, so the heap use does not depend on the number of rows.
+ */
+@Service
+public class ShortUrlExporter {
+    private static final String[] COLUMNS = {
+            "id", "shortKey", "shortUrl", "originalUrl", "isPrivate", "expiresAt", "clickCount", "createdAt",
+            "createdById", "createdByName"
+    };
+
+    private final ShortUrlStreamRepository shortUrlStreamRepository;
+    private final ObjectMapper objectMapper;
+    private final String shortUrlPrefix;
+
+    public ShortUrlExporter(ShortUrlStreamRepository shortUrlStreamRepository, ObjectMapper objectMapper,
+                            ApplicationProperties properties) {
+        this.shortUrlStreamRepository = shortUrlStreamRepository;
+        this.objectMapper = objectMapper;
+        this.shortUrlPrefix = properties.baseUrl() + "/s/";
+    }
+
+    /**
+     * Exports the links of {@code userId}.
+     */
+    public void export(long userId, DataFormat format, OutputStream out) throws IOException {
+        write(format, out, handler -> shortUrlStreamRepository.forEachExportRow(userId, handler));
+    }
+
+    /**
+     * Exports the links of every user, for admins.
+     */
+    public void exportAll(DataFormat format, OutputStream out) throws IOException {
+        write(format, out, shortUrlStreamRepository::forEachExportRowOfAllUsers);
+    }
+
+    private void write(DataFormat format, OutputStream out, Consumer<RowCallbackHandler> rows) throws IOException {
+        try {
+            if (format == DataFormat.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write(String.join(",", COLUMNS));
+                writer.write('\n');
+                rows.accept(csvRow(writer));
+                writer.flush();
+            } else {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    rows.accept(jsonRow(generator));
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private RowCallbackHandler csvRow(Writer writer) {
+        return rs -> {
+            try {
+                String shortKey = rs.getString(2);
+                writer.write(Long.toString(rs.getLong(1)));
+                writer.write(',');
+                writer.write(shortKey);
+                writer.write(',');
+                writeCsv(writer, shortUrlPrefix + shortKey);
+                writer.write(',');
+                writeCsv(writer, rs.getString(3));
+                writer.write(',');
+                writer.write(Boolean.toString(rs.getBoolean(4)));
+                writer.write(',');
+                writer.write(instant(rs, 5));
+                writer.write(',');
+                writer.write(Long.toString(rs.getLong(6)));
+                writer.write(',');
+                writer.write(instant(rs, 7));
+                writer.write(',');
+                long createdBy = rs.getLong(8);
+                writer.write(rs.wasNull() ? "" : Long.toString(createdBy));
+                writer.write(',');
+                writeCsv(writer, rs.getString(9));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private RowCallbackHandler jsonRow(JsonGenerator generator) {
+        return rs -> {
+            try {
+                String shortKey = rs.getString(2);
+                generator.writeStartObject();
+                generator.writeNumberField(COLUMNS[0], rs.getLong(1));
+                generator.writeStringField(COLUMNS[1], shortKey);
+                generator.writeStringField(COLUMNS[2], shortUrlPrefix + shortKey);
+                generator.writeStringField(COLUMNS[3], rs.getString(3));
+                generator.writeBooleanField(COLUMNS[4], rs.getBoolean(4));
+                String expiresAt = instant(rs, 5);
+                if (expiresAt.isEmpty()) {
+                    generator.writeNullField(COLUMNS[5]);
+                } else {
+                    generator.writeStringField(COLUMNS[5], expiresAt);
+                }
+                generator.writeNumberField(COLUMNS[6], rs.getLong(6));
+                generator.writeStringField(COLUMNS[7], instant(rs, 7));
+                long createdBy = rs.getLong(8);
+                if (rs.wasNull()) {
+                    generator.writeNullField(COLUMNS[8]);
+                } else {
+                    generator.writeNumberField(COLUMNS[8], createdBy);
+                }
+                generator.writeStringField(COLUMNS[9], rs.getString(9));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static String instant(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? "" : timestamp.toInstant().toString();
+    }
+
+    private static void writeCsv(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
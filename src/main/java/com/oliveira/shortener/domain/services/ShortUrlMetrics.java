@@ -0,0 +1,104 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.domain.analytics.ClickAnalytics;
+import com.oliveira.shortener.domain.models.RedirectOutcome;
+import com.oliveira.shortener.domain.snapshot.RedirectSnapshotStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the redirect and create paths, plus gauges over the in-memory structures behind them.
+ * Repository queries are timed by Spring Data ({@code spring.data.repository.invocations}) and the
+ * connection pool by the Hikari binder.
+ */
+@Component
+public class ShortUrlMetrics implements MeterBinder {
+    private final MeterRegistry registry;
+    private final RedirectCache redirectCache;
+    private final ShortKeyFilter shortKeyFilter;
+    private final ClickAnalytics clickAnalytics;
+    private final RedirectSnapshotStore redirectSnapshotStore;
+    private final Map<RedirectOutcome, Timer> redirectTimers = new EnumMap<>(RedirectOutcome.class);
+
+    public ShortUrlMetrics(MeterRegistry registry, RedirectCache redirectCache, ShortKeyFilter shortKeyFilter,
+                           ClickAnalytics clickAnalytics, RedirectSnapshotStore redirectSnapshotStore) {
+        this.registry = registry;
+        this.redirectCache = redirectCache;
+        this.shortKeyFilter = shortKeyFilter;
+        this.clickAnalytics = clickAnalytics;
+        this.redirectSnapshotStore = redirectSnapshotStore;
+        for (RedirectOutcome outcome : RedirectOutcome.values()) {
+            redirectTimers.put(outcome, Timer.builder("shortener.redirect")
+                    .description("Short key resolution for /s/{key}")
+                    .tag("outcome", outcome.tag())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    public void recordRedirect(RedirectOutcome outcome, long nanos) {
+        redirectTimers.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCreate(String outcome, long nanos) {
+        Timer.builder("shortener.create")
+                .description("Short url creation, including original url validation")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUrlValidation(boolean exists, long nanos) {
+        Timer.builder("shortener.url.validation")
+                .description("Original url existence check")
+                .tag("outcome", exists ? "exists" : "missing")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shortener.redirect.cache.size", redirectCache, cache -> cache.stats().size())
+                .register(registry);
+        if (redirectCache.stats().compact()) {
+            Gauge.builder("shortener.redirect.cache.footprint", redirectCache, cache -> cache.stats().footprintBytes())
+                    .description("Bytes held by the compact redirect table")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+        FunctionCounter.builder("shortener.redirect.cache.requests", redirectCache, cache -> cache.stats().hitCount())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("shortener.redirect.cache.requests", redirectCache, cache -> cache.stats().missCount())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("shortener.key.filter.rejections", shortKeyFilter, filter -> filter.stats().rejections())
+                .register(registry);
+        FunctionCounter.builder("shortener.clicks.published", clickAnalytics, analytics -> analytics.stats().published())
+                .register(registry);
+        FunctionCounter.builder("shortener.clicks.dropped", clickAnalytics, analytics -> analytics.stats().dropped())
+                .register(registry);
+        Gauge.builder("shortener.clicks.buffered", clickAnalytics, analytics -> analytics.stats().pending())
+                .register(registry);
+        Gauge.builder("shortener.redirect.snapshot.entries", redirectSnapshotStore, store -> store.stats().entries())
+                .register(registry);
+        Gauge.builder("shortener.redirect.snapshot.pending.changes", redirectSnapshotStore, store -> store.stats().pendingChanges())
+                .register(registry);
+        FunctionCounter.builder("shortener.redirect.snapshot.requests", redirectSnapshotStore, store -> store.stats().hitCount())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("shortener.redirect.snapshot.requests", redirectSnapshotStore, store -> store.stats().missCount())
+                .tag("result", "miss")
+                .register(registry);
+    }
+}
@@ -1,24 +1,38 @@
 package com.oliveira.shortener.domain.services;
 
 import com.oliveira.shortener.domain.entities.ShortUrl;
+import com.oliveira.shortener.domain.events.ShortUrlCreatedEvent;
+import com.oliveira.shortener.domain.events.ShortUrlsDeletedEvent;
 import com.oliveira.shortener.domain.models.CreateShortUrl;
+import com.oliveira.shortener.domain.models.PageCursor;
+import com.oliveira.shortener.domain.models.PageQuery;
 import com.oliveira.shortener.domain.models.PagedResult;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.models.RedirectOutcome;
 import com.oliveira.shortener.domain.models.ShortUrlDto;
 import com.oliveira.shortener.domain.repository.ShortUrlRepository;
 import com.oliveira.shortener.domain.repository.UserRepository;
+import com.oliveira.shortener.domain.snapshot.RedirectSnapshotStore;
 import com.oliveira.shortener.ApplicationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 
@@ -30,27 +44,72 @@ public class ShortUrlService {
     private final EntityMapper entityMapper;
     private final ApplicationProperties properties;
     private final UserRepository userRepository;
+    private final RedirectCache redirectCache;
+    private final ShortKeyFilter shortKeyFilter;
+    private final ClickCounter clickCounter;
+    private final ShortKeyGenerator shortKeyGenerator;
+    private final UrlExistenceValidator urlExistenceValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShortUrlMetrics metrics;
+    private final PublicListingCache publicListingCache;
+    private final RedirectSnapshotStore redirectSnapshotStore;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public ShortUrlService(ShortUrlRepository shortUrlRepository, EntityMapper entityMapper, ApplicationProperties properties, UserRepository userRepository){
+    public ShortUrlService(ShortUrlRepository shortUrlRepository, EntityMapper entityMapper, ApplicationProperties properties, UserRepository userRepository,
+                           RedirectCache redirectCache, ShortKeyFilter shortKeyFilter, ClickCounter clickCounter, ShortKeyGenerator shortKeyGenerator,
+                           UrlExistenceValidator urlExistenceValidator, TransactionTemplate transactionTemplate,
+                           ApplicationEventPublisher eventPublisher, ShortUrlMetrics metrics,
+                           PublicListingCache publicListingCache, RedirectSnapshotStore redirectSnapshotStore){
         this.shortUrlRepository = shortUrlRepository;
         this.entityMapper = entityMapper;
         this.properties = properties;
         this.userRepository = userRepository;
+        this.redirectCache = redirectCache;
+        this.shortKeyFilter = shortKeyFilter;
+        this.clickCounter = clickCounter;
+        this.shortKeyGenerator = shortKeyGenerator;
+        this.urlExistenceValidator = urlExistenceValidator;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.publicListingCache = publicListingCache;
+        this.redirectSnapshotStore = redirectSnapshotStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
-    public PagedResult<ShortUrlDto> findAllPublicShortUrls(int pageN, int pageSize) {
-        pageN = pageN > 1 ? pageN - 1 : 0;
+    // a cache hit must not check out a connection, so the read-only transaction only starts on a miss
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PagedResult<ShortUrlDto> findAllPublicShortUrls(PageQuery query) {
+        return publicListingCache.get(query, q -> readOnlyTransaction.execute(status -> loadPublicShortUrls(q)));
+    }
 
-        Pageable pageable = PageRequest.of(pageN, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<ShortUrlDto> shortUrlDtoPage =  shortUrlRepository.findPublicShortUrls(pageable).map(entityMapper::toShortUrlDto);
+    private PagedResult<ShortUrlDto> loadPublicShortUrls(PageQuery query) {
+        Instant now = Instant.now();
+        if (isKeysetPagination()) {
+            return keysetPage(query,
+                    (cursor, limit) -> shortUrlRepository.findPublicShortUrlsAfter(now, cursor.createdAt(), cursor.id(), limit),
+                    (cursor, limit) -> shortUrlRepository.findPublicShortUrlsBefore(now, cursor.createdAt(), cursor.id(), limit),
+                    () -> shortUrlRepository.countPublicShortUrls(now));
+        }
+        Pageable pageable = getPageable(query.page(), query.pageSize());
+        Page<ShortUrlDto> shortUrlDtoPage =  shortUrlRepository.findPublicShortUrls(now, pageable).map(entityMapper::toShortUrlDto);
 
         return PagedResult.from(shortUrlDtoPage);
 
     }
 
-    public PagedResult<ShortUrlDto> getUserShortUrls(Long userId, int page, int pageSize) {
-        Pageable pageable = getPageable(page, pageSize);
-        var shortUrlsPage = shortUrlRepository.findByCreatedById(userId, pageable)
+    public PagedResult<ShortUrlDto> getUserShortUrls(Long userId, PageQuery query) {
+        Instant now = Instant.now();
+        if (isKeysetPagination()) {
+            return keysetPage(query,
+                    (cursor, limit) -> shortUrlRepository.findUserShortUrlsAfter(userId, now, cursor.createdAt(), cursor.id(), limit),
+                    (cursor, limit) -> shortUrlRepository.findUserShortUrlsBefore(userId, now, cursor.createdAt(), cursor.id(), limit),
+                    () -> shortUrlRepository.countUserShortUrls(userId, now));
+        }
+        Pageable pageable = getPageable(query.page(), query.pageSize());
+        var shortUrlsPage = shortUrlRepository.findByCreatedById(userId, now, pageable)
                 .map(entityMapper::toShortUrlDto);
         return PagedResult.from(shortUrlsPage);
     }
@@ -58,36 +117,135 @@ public class ShortUrlService {
     @Transactional
     public void deleteUserShortUrls(List<Long> ids, Long userId) {
         if (ids != null && !ids.isEmpty() && userId != null) {
-            shortUrlRepository.deleteByIdInAndCreatedById(ids, userId);
+            // row locks make concurrent deletes of the same links report each key only once
+            List<ShortUrl> shortUrls = shortUrlRepository.findByIdInAndCreatedById(ids, userId);
+            if (shortUrls.isEmpty()) {
+                return;
+            }
+            shortUrlRepository.deleteAllInBatch(shortUrls);
+            eventPublisher.publishEvent(new ShortUrlsDeletedEvent(shortUrls.stream().map(ShortUrl::getShortKey).toList()));
         }
     }
 
-    public PagedResult<ShortUrlDto> findAllShortUrls(int page, int pageSize) {
-        Pageable pageable = getPageable(page, pageSize);
-        var shortUrlsPage =  shortUrlRepository.findAllShortUrls(pageable).map(entityMapper::toShortUrlDto);
+    public PagedResult<ShortUrlDto> findAllShortUrls(PageQuery query) {
+        Instant now = Instant.now();
+        if (isKeysetPagination()) {
+            return keysetPage(query,
+                    (cursor, limit) -> shortUrlRepository.findAllShortUrlsAfter(now, cursor.createdAt(), cursor.id(), limit),
+                    (cursor, limit) -> shortUrlRepository.findAllShortUrlsBefore(now, cursor.createdAt(), cursor.id(), limit),
+                    () -> shortUrlRepository.countAllShortUrls(now));
+        }
+        Pageable pageable = getPageable(query.page(), query.pageSize());
+        var shortUrlsPage =  shortUrlRepository.findAllShortUrls(now, pageable).map(entityMapper::toShortUrlDto);
         return PagedResult.from(shortUrlsPage);
     }
 
+    /**
+     * @return the short urls that still exist among the given ids, by id
+     */
+    public Map<Long, ShortUrlDto> findShortUrlsByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return readOnlyTransaction.execute(status -> shortUrlRepository.findWithCreatorByIdIn(ids).stream()
+                .collect(Collectors.toMap(ShortUrl::getId, entityMapper::toShortUrlDto)));
+    }
+
     private Pageable getPageable(int page, int size) {
         page = page > 1 ? page - 1: 0;
         return PageRequest.of(page, size, Sort.Direction.DESC, "createdAt");
     }
 
+    private boolean isKeysetPagination() {
+        return properties.pagination().mode() == ApplicationProperties.Pagination.Mode.KEYSET;
+    }
 
-    @Transactional
+    private PagedResult<ShortUrlDto> keysetPage(PageQuery query,
+                                                BiFunction<PageCursor, Limit, List<ShortUrl>> after,
+                                                BiFunction<PageCursor, Limit, List<ShortUrl>> before,
+                                                LongSupplier count) {
+        return KeysetPager.page(query, after, before, ShortUrlService::cursorOf,
+                        properties.pagination().countTotal() ? count : null)
+                .map(entityMapper::toShortUrlDto);
+    }
+
+    private static RedirectEntry toRedirectEntry(ShortUrl shortUrl) {
+        return new RedirectEntry(shortUrl.getId(), shortUrl.getShortKey(), shortUrl.getOriginalUrl(),
+                shortUrl.getExpiresAt(), shortUrl.getIsPrivate(),
+                shortUrl.getCreatedBy() != null ? shortUrl.getCreatedBy().getId() : null);
+    }
+
+    private static PageCursor cursorOf(ShortUrl shortUrl) {
+        return new PageCursor(shortUrl.getCreatedAt(), shortUrl.getId());
+    }
+
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ShortUrlDto createShortUrl(CreateShortUrl createShortUrl) {
-        System.out.println(createShortUrl.originalUrl());
-        if(properties.validateOriginalUrl()) {
-            boolean urlExists = UrlExistenceValidator.isUrlExists(createShortUrl.originalUrl());
-            if(!urlExists) {
-                throw new IllegalArgumentException("Invalid URL " + createShortUrl.originalUrl());
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            if (properties.dedup().enabled()) {
+                ShortUrlDto existing = readOnlyTransaction.execute(status -> findReusableShortUrl(createShortUrl));
+                if (existing != null) {
+                    outcome = "reused";
+                    return existing;
+                }
             }
+            // validate before a transaction (and a pooled connection) is taken
+            if(properties.validateOriginalUrl()) {
+                long validationStart = System.nanoTime();
+                boolean urlExists = urlExistenceValidator.isUrlExists(createShortUrl.originalUrl());
+                metrics.recordUrlValidation(urlExists, System.nanoTime() - validationStart);
+                if(!urlExists) {
+                    outcome = "invalid-url";
+                    throw new IllegalArgumentException("Invalid URL " + createShortUrl.originalUrl());
+                }
 
+            }
+            ShortUrlDto shortUrlDto = transactionTemplate.execute(status -> saveShortUrl(createShortUrl));
+            outcome = "created";
+            return shortUrlDto;
+        } finally {
+            metrics.recordCreate(outcome, System.nanoTime() - start);
         }
+    }
 
-        String shortKey = generateUniqueShortKey();
+    /**
+     * A live link for the same canonical url, owner and privacy whose expiry is within the dedup
+     * tolerance of the one this request would get; anonymous links always get the default expiry. The match
+     * keeps its own original url, which may differ from the requested one in non-canonical details.
+     */
+    private ShortUrlDto findReusableShortUrl(CreateShortUrl createShortUrl) {
+        byte[] urlHash = UrlNormalizer.contentHash(createShortUrl.originalUrl());
+        Instant now = Instant.now();
+        Duration tolerance = properties.dedup().expiryTolerance();
+        List<ShortUrl> matches;
+        if (createShortUrl.userId() == null) {
+            Instant expiresAt = now.plus(properties.defaultExpiryInDays(), DAYS);
+            matches = shortUrlRepository.findReusableAnonymous(urlHash,
+                    max(now, expiresAt.minus(tolerance)), expiresAt.plus(tolerance), Limit.of(1));
+        } else if (createShortUrl.expirationInDays() == null) {
+            matches = shortUrlRepository.findReusableOwnedWithoutExpiry(urlHash, createShortUrl.userId(),
+                    Boolean.TRUE.equals(createShortUrl.isPrivate()), Limit.of(1));
+        } else {
+            Instant expiresAt = now.plus(createShortUrl.expirationInDays(), DAYS);
+            matches = shortUrlRepository.findReusableOwned(urlHash, createShortUrl.userId(),
+                    Boolean.TRUE.equals(createShortUrl.isPrivate()),
+                    max(now, expiresAt.minus(tolerance)), expiresAt.plus(tolerance), Limit.of(1));
+        }
+        return matches.isEmpty() ? null : entityMapper.toShortUrlDto(matches.getFirst());
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private ShortUrlDto saveShortUrl(CreateShortUrl createShortUrl) {
+        String shortKey = shortKeyGenerator.nextKey();
         ShortUrl shortUrl = new ShortUrl();
         shortUrl.setOriginalUrl(createShortUrl.originalUrl());
+        shortUrl.setUrlHash(UrlNormalizer.contentHash(createShortUrl.originalUrl()));
         shortUrl.setShortKey(shortKey);
 
         if(createShortUrl.userId() == null) {
@@ -104,47 +262,44 @@ public class ShortUrlService {
         shortUrl.setClickCount(0L);
         shortUrl.setCreatedAt(Instant.now());
         shortUrlRepository.save(shortUrl);
+        eventPublisher.publishEvent(new ShortUrlCreatedEvent(toRedirectEntry(shortUrl)));
         return entityMapper.toShortUrlDto(shortUrl);
     }
 
-    private String generateUniqueShortKey() {
-        String shortKey;
-        do {
-            shortKey = generateRandomShortKey();
-        } while (shortUrlRepository.existsByShortKey(shortKey));
-        return shortKey;
-    }
-
-
-    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-    private static final int SHORT_KEY_LENGTH = 6;
-    private static final SecureRandom RANDOM = new SecureRandom();
-
-    public static String generateRandomShortKey() {
-        StringBuilder sb = new StringBuilder(SHORT_KEY_LENGTH);
-        for (int i = 0; i < SHORT_KEY_LENGTH; i++) {
-            sb.append(CHARACTERS.charAt(RANDOM.nextInt(CHARACTERS.length())));
-        }
-        return sb.toString();
-    }
-
-
-    @Transactional
-    public Optional<ShortUrlDto> accessShortUrl(String shortKey, Long userId) {
-        Optional<ShortUrl> shortUrlOptional = shortUrlRepository.findByShortKey(shortKey);
-        if(shortUrlOptional.isEmpty()) {
-            return Optional.empty();
-        }
-        ShortUrl shortUrl = shortUrlOptional.get();
-        if(shortUrl.getExpiresAt() != null && shortUrl.getExpiresAt().isBefore(Instant.now())) {
-            return Optional.empty();
-        }
-        if(shortUrl.getIsPrivate() != null && shortUrl.getCreatedBy() != null && !Objects.equals(shortUrl.getCreatedBy().getId(), userId)) {
-            return Optional.empty();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<RedirectEntry> accessShortUrl(String shortKey, Long userId) {
+        long start = System.nanoTime();
+        RedirectOutcome outcome = RedirectOutcome.NOT_FOUND;
+        try {
+            RedirectEntry entry = redirectCache.get(shortKey);
+            if (entry == null) {
+                if (!shortKeyFilter.mightContain(shortKey)) {
+                    return Optional.empty();
+                }
+                entry = redirectSnapshotStore.find(shortKey);
+                if (entry == null) {
+                    Optional<RedirectEntry> entryOptional = shortUrlRepository.findRedirectEntryByShortKey(shortKey);
+                    if (entryOptional.isEmpty()) {
+                        return Optional.empty();
+                    }
+                    entry = entryOptional.get();
+                }
+                redirectCache.put(entry);
+            }
+            if (entry.isExpired(Instant.now())) {
+                outcome = RedirectOutcome.EXPIRED;
+                return Optional.empty();
+            }
+            if (!entry.isAccessibleBy(userId)) {
+                outcome = RedirectOutcome.PRIVATE_DENIED;
+                return Optional.empty();
+            }
+            clickCounter.increment(entry.id());
+            outcome = RedirectOutcome.FOUND;
+            return Optional.of(entry);
+        } finally {
+            metrics.recordRedirect(outcome, System.nanoTime() - start);
         }
-        shortUrl.setClickCount(shortUrl.getClickCount()+1);
-        shortUrlRepository.save(shortUrl);
-        return shortUrlOptional.map(entityMapper::toShortUrlDto);
     }
 
 }
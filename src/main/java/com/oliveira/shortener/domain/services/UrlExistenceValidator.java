@@ -1,32 +1,161 @@
 package com.oliveira.shortener.domain.services;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.oliveira.shortener.ApplicationProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.net.HttpURLConnection;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.URI;
-import java.net.URL;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class UrlExistenceValidator {
+/**
+ * Checks that an original URL answers with a 2xx/3xx status. Requests run on virtual threads
+ * through {@link HttpClient}, trying HEAD first and falling back to GET for servers that reject HEAD.
+ * Results are cached per normalized URL (positive and negative TTLs), and hosts that could not be
+ * reached are remembered for a while so further URLs on them fail fast.
+ */
+@Component
+public class UrlExistenceValidator implements DisposableBean {
     private static final Logger log = LoggerFactory.getLogger(UrlExistenceValidator.class);
 
-    public static boolean isUrlExists(String urlString) {
+    private final ApplicationProperties.UrlValidation config;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final AsyncCache<String, Boolean> results;
+    private final Cache<String, Boolean> unreachableHosts;
+
+    @Autowired
+    public UrlExistenceValidator(ApplicationProperties properties) {
+        this(properties.urlValidation());
+    }
+
+    UrlExistenceValidator(ApplicationProperties.UrlValidation config) {
+        this.config = config;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(config.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(config.maximumSize())
+                .expireAfter(new ResultExpiry(config))
+                .executor(executor)
+                .buildAsync();
+        this.unreachableHosts = Caffeine.newBuilder()
+                .maximumSize(config.maximumSize())
+                .expireAfterWrite(config.negativeTimeToLive())
+                .build();
+    }
+
+    public boolean isUrlExists(String urlString) {
+        try {
+            return checkAsync(urlString).join();
+        } catch (CompletionException e) {
+            log.error("Error while checking URL: {}", urlString, e.getCause());
+            return false;
+        }
+    }
+
+    public CompletableFuture<Boolean> checkAsync(String urlString) {
+        URI uri;
         try {
-            log.debug("Checking if URL exists: {}", urlString);
-            URL url = new URI(urlString).toURL();
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000); // 5 seconds
-            connection.setReadTimeout(5000);
-            connection.setInstanceFollowRedirects(true);
-            connection.setRequestProperty("User-Agent", "Mozilla/5.0");
-
-            int responseCode = connection.getResponseCode();
-            return (responseCode >= 200 && responseCode < 400); // 2xx and 3xx are valid
-        } catch (Exception e) {
-            log.error("Error while checking URL: {}", urlString, e);
-            return false; // URL is invalid or not reachable
+            uri = UrlNormalizer.normalize(urlString);
+        } catch (URISyntaxException | RuntimeException e) {
+            log.debug("Rejecting malformed URL: {}", urlString);
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme())) {
+            return CompletableFuture.completedFuture(false);
         }
+        if (unreachableHosts.getIfPresent(uri.getHost()) != null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return results.get(uri.toString(), (key, ignored) -> probe(uri));
+    }
+
+    private CompletableFuture<Boolean> probe(URI uri) {
+        log.debug("Checking if URL exists: {}", uri);
+        return send(uri, "HEAD")
+                .thenCompose(status -> isSuccess(status)
+                        ? CompletableFuture.completedFuture(true)
+                        : send(uri, "GET").thenApply(UrlExistenceValidator::isSuccess))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (isUnreachable(cause)) {
+                        unreachableHosts.put(uri.getHost(), Boolean.TRUE);
+                    }
+                    log.warn("URL check failed for {}: {}", uri, cause.toString());
+                    return false;
+                });
     }
 
+    private CompletableFuture<Integer> send(URI uri, String method) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .timeout(config.requestTimeout())
+                .header("User-Agent", "Mozilla/5.0")
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    // the body is never needed, closing it releases the connection early
+                    try (InputStream ignored = response.body()) {
+                        return response.statusCode();
+                    } catch (IOException e) {
+                        return response.statusCode();
+                    }
+                });
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 400; // 2xx and 3xx are valid
+    }
+
+    private static boolean isUnreachable(Throwable e) {
+        return e instanceof ConnectException
+                || e instanceof HttpConnectTimeoutException
+                || e instanceof UnresolvedAddressException
+                || e.getCause() instanceof UnresolvedAddressException;
+    }
+
+    @Override
+    public void destroy() {
+        httpClient.close();
+        executor.close();
+    }
 
-}
\ No newline at end of file
+    private record ResultExpiry(ApplicationProperties.UrlValidation config) implements Expiry<String, Boolean> {
+
+        @Override
+        public long expireAfterCreate(String key, Boolean exists, long currentTime) {
+            return (exists ? config.positiveTimeToLive() : config.negativeTimeToLive()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
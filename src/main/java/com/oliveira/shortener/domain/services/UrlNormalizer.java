@@ -0,0 +1,94 @@
+package com.oliveira.shortener.domain.services;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+public final class UrlNormalizer {
+
+    private UrlNormalizer() {
+    }
+
+    /**
+     * Lower-cases scheme and host, drops default ports and the fragment, and uses "/" for an empty path.
+     */
+    public static URI normalize(String url) throws URISyntaxException {
+        URI uri = new URI(url.trim());
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new URISyntaxException(url, "Absolute http(s) URL expected");
+        }
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        int port = isDefaultPort(scheme, uri.getPort()) ? -1 : uri.getPort();
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        StringBuilder sb = new StringBuilder(url.length())
+                .append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            sb.append(uri.getRawUserInfo()).append('@');
+        }
+        sb.append(host);
+        if (port != -1) {
+            sb.append(':').append(port);
+        }
+        sb.append(path);
+        if (uri.getRawQuery() != null) {
+            sb.append('?').append(uri.getRawQuery());
+        }
+        return new URI(sb.toString());
+    }
+
+    /**
+     * {@link #normalize} plus no trailing slash on non-root paths and query parameters sorted by name
+     * (keeping the order of repeated names); the fragment is kept. URLs that do not parse are only trimmed.
+     */
+    public static String canonicalize(String url) {
+        URI uri;
+        try {
+            uri = normalize(url);
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+        String path = uri.getRawPath();
+        while (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        StringBuilder sb = new StringBuilder(url.length())
+                .append(uri.getScheme()).append("://").append(uri.getRawAuthority()).append(path);
+        if (uri.getRawQuery() != null && !uri.getRawQuery().isEmpty()) {
+            String[] parameters = uri.getRawQuery().split("&");
+            Arrays.sort(parameters, Comparator.comparing(parameter -> {
+                int equals = parameter.indexOf('=');
+                return equals == -1 ? parameter : parameter.substring(0, equals);
+            }));
+            sb.append('?').append(String.join("&", parameters));
+        }
+        String trimmed = url.trim();
+        int fragment = trimmed.indexOf('#');
+        if (fragment != -1) {
+            sb.append(trimmed, fragment, trimmed.length());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * SHA-256 of the {@link #canonicalize canonical form}, the fixed-width key links are deduplicated on.
+     */
+    public static byte[] contentHash(String url) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(canonicalize(url).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isDefaultPort(String scheme, int port) {
+        return port == -1
+                || ("http".equals(scheme) && port == 80)
+                || ("https".equals(scheme) && port == 443);
+    }
+}
@@ -0,0 +1,83 @@
+package com.oliveira.shortener.domain.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch over long keys: {@code depth} rows of {@code width} int counters. Estimates never
+ * undercount and overcount by at most {@code e / width} of the total with probability {@code 1 - e^-depth}.
+ * Plain increments (no conservative update), so sketches of the same shape can be added and subtracted.
+ * Not thread-safe.
+ */
+public class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final int[] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new int[depth * width];
+    }
+
+    public void add(long key, int count) {
+        long hash = Hashing.hash64(key);
+        long h2 = Hashing.mix64(hash) | 1;
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + index(hash + row * h2)] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(long key) {
+        long hash = Hashing.hash64(key);
+        long h2 = Hashing.mix64(hash) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + index(hash + row * h2)]);
+        }
+        return min;
+    }
+
+    public void add(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    public void subtract(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+        total -= other.total;
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+        total = 0;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public long memoryBytes() {
+        return (long) counters.length * Integer.BYTES;
+    }
+
+    private int index(long hash) {
+        return (int) Long.remainderUnsigned(hash, width);
+    }
+
+    private void checkShape(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("sketches differ in shape");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.oliveira.shortener.domain.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counting Bloom filter with 4-bit counters packed sixteen to a long.
+ * Counters that reach 15 saturate and are never decremented again, so removals can only
+ * leave false positives behind, never false negatives.
+ */
+public class CountingBloomFilter {
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final long SATURATED = 0xFL;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashFunctions;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact(Math.max(1, (m + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+        this.words = new AtomicLongArray(wordCount);
+        this.counters = (long) wordCount * COUNTERS_PER_WORD;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters / n * Math.log(2)));
+    }
+
+    public boolean mightContain(CharSequence key) {
+        long hash = Hashing.hash64(key);
+        long h1 = hash;
+        long h2 = Hashing.mix64(hash) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            if (counter(index(h1 + i * h2)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(CharSequence key) {
+        long hash = Hashing.hash64(key);
+        long h1 = hash;
+        long h2 = Hashing.mix64(hash) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(h1 + i * h2), 1);
+        }
+    }
+
+    public void remove(CharSequence key) {
+        long hash = Hashing.hash64(key);
+        long h1 = hash;
+        long h2 = Hashing.mix64(hash) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(h1 + i * h2), -1);
+        }
+    }
+
+    public long counters() {
+        return counters;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private long index(long combinedHash) {
+        return Math.floorMod(combinedHash, counters);
+    }
+
+    private long counter(long index) {
+        int shift = (int) (index % COUNTERS_PER_WORD) * 4;
+        return (words.get((int) (index / COUNTERS_PER_WORD)) >>> shift) & COUNTER_MASK;
+    }
+
+    private void update(long index, int delta) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = (int) (index % COUNTERS_PER_WORD) * 4;
+        while (true) {
+            long current = words.get(word);
+            long counter = (current >>> shift) & COUNTER_MASK;
+            if (counter == SATURATED || (delta < 0 && counter == 0)) {
+                return;
+            }
+            long updated = (current & ~(COUNTER_MASK << shift)) | ((counter + delta) << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.oliveira.shortener.domain.sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * The {@code k} keys with the highest counts seen so far, kept in a min-heap indexed by key so a
+ * key already in it is updated in place. A key only gets in by beating the current minimum. Not thread-safe.
+ */
+public class TopK {
+    private final int k;
+    private final long[] keys;
+    private final long[] counts;
+    private final Map<Long, Integer> positions;
+    private int size;
+
+    public TopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.keys = new long[k];
+        this.counts = new long[k];
+        this.positions = HashMap.newHashMap(k);
+    }
+
+    /**
+     * Offers the latest count of a key, which for a key already in the heap replaces its old one.
+     */
+    public void offer(long key, long count) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            long previous = counts[position];
+            counts[position] = count;
+            if (count > previous) {
+                siftDown(position);
+            } else {
+                siftUp(position);
+            }
+        } else if (size < k) {
+            keys[size] = key;
+            counts[size] = count;
+            positions.put(key, size);
+            siftUp(size++);
+        } else if (count > counts[0]) {
+            positions.remove(keys[0]);
+            keys[0] = key;
+            counts[0] = count;
+            positions.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Replaces every count with {@code recount.applyAsLong(key)} and drops keys whose count is now zero,
+     * for when counts can go down, e.g. when old ones leave a sliding window.
+     */
+    public void recount(LongUnaryOperator recount) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            long count = recount.applyAsLong(keys[i]);
+            if (count > 0) {
+                keys[kept] = keys[i];
+                counts[kept++] = count;
+            }
+        }
+        size = kept;
+        positions.clear();
+        for (int i = 0; i < size; i++) {
+            positions.put(keys[i], i);
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * @return {key, count} pairs, highest count first
+     */
+    public List<long[]> sorted() {
+        List<long[]> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new long[]{keys[i], counts[i]});
+        }
+        entries.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+        return entries;
+    }
+
+    public int size() {
+        return size;
+    }
+
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        long count = counts[a];
+        keys[a] = keys[b];
+        counts[a] = counts[b];
+        keys[b] = key;
+        counts[b] = count;
+        positions.put(keys[a], a);
+        positions.put(keys[b], b);
+    }
+}
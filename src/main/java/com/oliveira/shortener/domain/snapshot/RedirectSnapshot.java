@@ -0,0 +1,126 @@
+package com.oliveira.shortener.domain.snapshot;
+
+import com.oliveira.shortener.domain.models.RedirectEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Read-only, memory-mapped view of a redirect snapshot file. Lookups probe the open-addressing index and
+ * compare the key against the mapped record in place; only the URL of a hit is copied onto the heap.
+ * <pre>
+ * header   magic "SNP1", count, index slots, url bytes (ints), created at (epoch millis), reserved (longs)
+ * index    one int per slot: record number + 1, 0 for an empty slot; at most half of the slots are used
+ * records  RECORD_SIZE bytes each: id, expires at (epoch millis or Long.MIN_VALUE), owner id (0 for none),
+ *          url offset and length, key length, flags (1 = private), key bytes (ASCII)
+ * urls     UTF-8 bytes of every original url, back to back
+ * </pre>
+ * Files stay below 2 GB so a single buffer maps them.
+ */
+public final class RedirectSnapshot {
+    static final int MAGIC = 0x534E5031; // "SNP1"
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 48;
+    static final int MAX_KEY_LENGTH = 10;
+    static final long NO_EXPIRY = Long.MIN_VALUE;
+    static final byte FLAG_PRIVATE = 1;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int mask;
+    private final int recordsOffset;
+    private final int urlsOffset;
+    private final Instant createdAt;
+
+    private RedirectSnapshot(Path path, ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a redirect snapshot: " + path);
+        }
+        this.path = path;
+        this.buffer = buffer;
+        this.count = buffer.getInt(4);
+        int slots = buffer.getInt(8);
+        this.mask = slots - 1;
+        this.recordsOffset = HEADER_SIZE + slots * 4;
+        this.urlsOffset = recordsOffset + count * RECORD_SIZE;
+        this.createdAt = Instant.ofEpochMilli(buffer.getLong(16));
+        if ((long) urlsOffset + buffer.getInt(12) != buffer.capacity()) {
+            throw new IOException("Truncated redirect snapshot: " + path);
+        }
+    }
+
+    public static RedirectSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping outlives the channel
+            return new RedirectSnapshot(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public RedirectEntry find(String shortKey) {
+        int length = shortKey.length();
+        if (length > MAX_KEY_LENGTH) {
+            return null;
+        }
+        int slot = hash(shortKey) & mask;
+        while (true) {
+            int reference = buffer.getInt(HEADER_SIZE + slot * 4);
+            if (reference == 0) {
+                return null;
+            }
+            int record = recordsOffset + (reference - 1) * RECORD_SIZE;
+            if (keyEquals(record, shortKey, length)) {
+                return read(record, shortKey);
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    static int hash(String shortKey) {
+        int h = shortKey.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean keyEquals(int record, String shortKey, int length) {
+        if (buffer.get(record + 32) != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(record + 34 + i) != shortKey.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private RedirectEntry read(int record, String shortKey) {
+        long expiresAt = buffer.getLong(record + 8);
+        long ownerId = buffer.getLong(record + 16);
+        byte[] url = new byte[buffer.getInt(record + 28)];
+        buffer.get(urlsOffset + buffer.getInt(record + 24), url);
+        return new RedirectEntry(
+                buffer.getLong(record),
+                shortKey,
+                new String(url, StandardCharsets.UTF_8),
+                expiresAt == NO_EXPIRY ? null : Instant.ofEpochMilli(expiresAt),
+                (buffer.get(record + 33) & FLAG_PRIVATE) != 0,
+                ownerId == 0 ? null : ownerId);
+    }
+}
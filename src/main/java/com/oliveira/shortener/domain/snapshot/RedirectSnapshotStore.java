@@ -0,0 +1,203 @@
+package com.oliveira.shortener.domain.snapshot;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.events.ShortUrlCreatedEvent;
+import com.oliveira.shortener.domain.events.ShortUrlsDeletedEvent;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.models.RedirectSnapshotStats;
+import com.oliveira.shortener.domain.repository.ShortUrlStreamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Answers redirect lookups from the newest {@link RedirectSnapshot} plus the links created and deleted on
+ * this node since it was built. A rebuild scans {@code short_urls} into a new file, maps it and swaps it in,
+ * then drops the changes recorded before its scan started, since the scan already saw them.
+ * The newest snapshot on disk is mapped at startup, so a restarted node serves redirects before its
+ * first rebuild (or any cache) has warmed up.
+ */
+@Component
+public class RedirectSnapshotStore implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(RedirectSnapshotStore.class);
+    private static final String PREFIX = "redirects-";
+    private static final String SUFFIX = ".snap";
+
+    private final ShortUrlStreamRepository streamRepository;
+    private final ApplicationProperties.Snapshot config;
+    private final Path directory;
+    // created entries, or null for keys deleted since the snapshot was built
+    private final Map<String, Change> changes = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile RedirectSnapshot snapshot;
+    private ScheduledExecutorService rebuilder;
+    private volatile boolean running;
+
+    public RedirectSnapshotStore(ShortUrlStreamRepository streamRepository, ApplicationProperties properties) {
+        this.streamRepository = streamRepository;
+        this.config = properties.snapshot();
+        this.directory = Path.of(config.directory());
+    }
+
+    /**
+     * @return the entry, or null if the snapshot does not know the key (or it was deleted since)
+     */
+    public RedirectEntry find(String shortKey) {
+        if (!config.enabled()) {
+            return null;
+        }
+        Change change = changes.get(shortKey);
+        RedirectSnapshot current = snapshot;
+        RedirectEntry entry = change != null ? change.entry() : current != null ? current.find(shortKey) : null;
+        (entry != null ? hits : misses).increment();
+        return entry;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShortUrlCreated(ShortUrlCreatedEvent event) {
+        if (config.enabled()) {
+            RedirectEntry entry = event.entry();
+            changes.put(entry.shortKey(), new Change(entry, changeSequence.incrementAndGet()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShortUrlsDeleted(ShortUrlsDeletedEvent event) {
+        if (config.enabled()) {
+            for (String shortKey : event.shortKeys()) {
+                changes.put(shortKey, new Change(null, changeSequence.incrementAndGet()));
+            }
+        }
+    }
+
+    public RedirectSnapshotStats stats() {
+        RedirectSnapshot current = snapshot;
+        return new RedirectSnapshotStats(config.enabled(), current != null ? current.size() : 0, changes.size(),
+                hits.sum(), misses.sum());
+    }
+
+    void rebuild() {
+        long start = System.nanoTime();
+        long sequenceAtStart = changeSequence.get();
+        Instant createdAt = Instant.now();
+        Path target = directory.resolve(PREFIX + String.format("%013d", createdAt.toEpochMilli()) + SUFFIX);
+        try (RedirectSnapshotWriter writer = new RedirectSnapshotWriter(directory)) {
+            streamRepository.forEachRedirectRow(createdAt, rs -> {
+                Timestamp expiresAt = rs.getTimestamp(4);
+                long createdBy = rs.getLong(6);
+                Long ownerId = rs.wasNull() ? null : createdBy;
+                try {
+                    writer.add(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            expiresAt != null ? expiresAt.toInstant() : null, rs.getBoolean(5), ownerId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.writeTo(target, createdAt);
+            RedirectSnapshot previous = snapshot;
+            snapshot = RedirectSnapshot.open(target);
+            changes.values().removeIf(change -> change.sequence() <= sequenceAtStart);
+            if (previous != null) {
+                // the old mapping stays valid for in-flight lookups until it is collected
+                Files.deleteIfExists(previous.path());
+            }
+            log.info("Built redirect snapshot of {} links ({} KB) in {} ms", writer.count(), Files.size(target) / 1024,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to build redirect snapshot, keeping the previous one", e);
+        }
+    }
+
+    private void mapNewestOnDisk() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.sorted(Comparator.reverseOrder()).toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".tmp")) {
+                // spools and half-written snapshots of a build that never finished
+                Files.deleteIfExists(file);
+                continue;
+            }
+            if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+                continue;
+            }
+            if (snapshot == null) {
+                try {
+                    RedirectSnapshot candidate = RedirectSnapshot.open(file);
+                    Duration age = Duration.between(candidate.createdAt(), Instant.now());
+                    if (age.compareTo(config.maxAge()) < 0) {
+                        snapshot = candidate;
+                        log.info("Mapped redirect snapshot {} with {} links, {} min old", file.getFileName(),
+                                candidate.size(), age.toMinutes());
+                        continue;
+                    }
+                } catch (IOException e) {
+                    log.warn("Ignoring unreadable redirect snapshot {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!config.enabled()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            mapNewestOnDisk();
+        } catch (IOException e) {
+            log.warn("Could not read redirect snapshots from {}: {}", directory.toAbsolutePath(), e.getMessage());
+        }
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redirect-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // a snapshot from disk misses whatever changed while this node was down, so rebuild right away
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, config.rebuildInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record Change(RedirectEntry entry, long sequence) {
+    }
+}
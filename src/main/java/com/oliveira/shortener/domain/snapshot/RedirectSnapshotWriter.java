@@ -0,0 +1,138 @@
+package com.oliveira.shortener.domain.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static com.oliveira.shortener.domain.snapshot.RedirectSnapshot.FLAG_PRIVATE;
+import static com.oliveira.shortener.domain.snapshot.RedirectSnapshot.HEADER_SIZE;
+import static com.oliveira.shortener.domain.snapshot.RedirectSnapshot.MAGIC;
+import static com.oliveira.shortener.domain.snapshot.RedirectSnapshot.MAX_KEY_LENGTH;
+import static com.oliveira.shortener.domain.snapshot.RedirectSnapshot.NO_EXPIRY;
+import static com.oliveira.shortener.domain.snapshot.RedirectSnapshot.RECORD_SIZE;
+
+/**
+ * Streams rows into a {@link RedirectSnapshot} file. Records and URL bytes are spooled to two temporary
+ * files as they arrive, keeping only one hash per row in memory; {@link #writeTo} then writes the header
+ * and index and appends both spools, and moves the result into place atomically.
+ */
+final class RedirectSnapshotWriter implements AutoCloseable {
+
+    private final Path recordsSpool;
+    private final Path urlsSpool;
+    private final DataOutputStream records;
+    private final DataOutputStream urls;
+    private int[] hashes = new int[1024];
+    private int count;
+    private long urlBytes;
+
+    RedirectSnapshotWriter(Path directory) throws IOException {
+        this.recordsSpool = Files.createTempFile(directory, "records", ".tmp");
+        this.urlsSpool = Files.createTempFile(directory, "urls", ".tmp");
+        this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsSpool), 1 << 16));
+        this.urls = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(urlsSpool), 1 << 16));
+    }
+
+    /**
+     * @return false if the key cannot be stored (longer than the short key column or not ASCII)
+     */
+    boolean add(long id, String shortKey, String originalUrl, Instant expiresAt, boolean isPrivate, Long ownerId)
+            throws IOException {
+        int keyLength = shortKey.length();
+        if (keyLength > MAX_KEY_LENGTH || !shortKey.chars().allMatch(c -> c < 0x80)) {
+            return false;
+        }
+        byte[] url = originalUrl.getBytes(StandardCharsets.UTF_8);
+        records.writeLong(id);
+        records.writeLong(expiresAt != null ? expiresAt.toEpochMilli() : NO_EXPIRY);
+        records.writeLong(ownerId != null ? ownerId : 0);
+        records.writeInt((int) urlBytes);
+        records.writeInt(url.length);
+        records.writeByte(keyLength);
+        records.writeByte(isPrivate ? FLAG_PRIVATE : 0);
+        records.writeBytes(shortKey);
+        records.write(new byte[RECORD_SIZE - 34 - keyLength]);
+        urls.write(url);
+        urlBytes += url.length;
+
+        if (count == hashes.length) {
+            hashes = Arrays.copyOf(hashes, count * 2);
+        }
+        hashes[count++] = RedirectSnapshot.hash(shortKey);
+        return true;
+    }
+
+    int count() {
+        return count;
+    }
+
+    void writeTo(Path target, Instant createdAt) throws IOException {
+        records.close();
+        urls.close();
+        int slots = Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+        long size = HEADER_SIZE + (long) slots * 4 + (long) count * RECORD_SIZE + urlBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Redirect snapshot would be " + size + " bytes, over the 2 GB a single mapping allows");
+        }
+
+        int mask = slots - 1;
+        int[] index = new int[slots];
+        for (int i = 0; i < count; i++) {
+            int slot = hashes[i] & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(count).putInt(slots).putInt((int) urlBytes)
+                    .putLong(createdAt.toEpochMilli()).putLong(0)
+                    .flip();
+            writeFully(out, header);
+            ByteBuffer indexBytes = ByteBuffer.allocate(slots * 4);
+            indexBytes.asIntBuffer().put(index);
+            writeFully(out, indexBytes);
+            append(out, recordsSpool);
+            append(out, urlsSpool);
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+        urls.close();
+        Files.deleteIfExists(recordsSpool);
+        Files.deleteIfExists(urlsSpool);
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static void append(FileChannel out, Path spool) throws IOException {
+        try (FileChannel in = FileChannel.open(spool, StandardOpenOption.READ)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.oliveira.shortener.domain.timing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, each level covering 64 times the span of
+ * the one below it. Scheduling is O(1); timers on upper levels are cascaded down as the wheel turns,
+ * so {@link #advanceTo(long, Consumer)} only touches the slots that are due.
+ * <p>
+ * Not thread-safe; it is meant to be owned by a single ticker thread.
+ * Deadlines are expressed in ticks and must be monotonic with the ticks passed to {@code advanceTo}.
+ */
+public final class HierarchicalTimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final List<ArrayDeque<Timer<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final ArrayDeque<Timer<T>> overflow = new ArrayDeque<>();
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long startTick) {
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+        this.currentTick = startTick;
+    }
+
+    public void schedule(T item, long deadlineTick) {
+        place(new Timer<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Turns the wheel up to {@code tick}, handing every item whose deadline has passed to {@code onExpired}.
+     */
+    public void advanceTo(long tick, Consumer<T> onExpired) {
+        while (currentTick < tick) {
+            currentTick++;
+            if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+                cascade(overflow, onExpired);
+            }
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(slot(level, currentTick), onExpired);
+                }
+            }
+            cascade(slot(0, currentTick), onExpired);
+        }
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(ArrayDeque<Timer<T>> timers, Consumer<T> onExpired) {
+        int pending = timers.size();
+        for (int i = 0; i < pending; i++) {
+            Timer<T> timer = timers.poll();
+            if (timer.deadlineTick() <= currentTick) {
+                size--;
+                onExpired.accept(timer.item());
+            } else {
+                place(timer);
+            }
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        // the current slot has already been processed, so anything already due fires on the next tick
+        long deadline = Math.max(timer.deadlineTick(), currentTick + 1);
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((deadline >>> shift) == (currentTick >>> shift)) {
+                slot(level, deadline).add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private ArrayDeque<Timer<T>> slot(int level, long tick) {
+        int index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        return slots.get(level * SLOTS + index);
+    }
+
+    private record Timer<T>(T item, long deadlineTick) {
+    }
+}
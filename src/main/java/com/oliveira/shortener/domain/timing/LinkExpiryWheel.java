@@ -0,0 +1,98 @@
+package com.oliveira.shortener.domain.timing;
+
+import com.oliveira.shortener.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fires a callback for a short key at its {@code expiresAt}, so in-memory lookup structures can drop
+ * links the moment they expire instead of waiting for their own TTL or the database reaper.
+ * Callers enqueue lock-free; a single ticker thread owns the {@link HierarchicalTimingWheel}.
+ */
+@Component
+public class LinkExpiryWheel implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(LinkExpiryWheel.class);
+
+    private final ConcurrentLinkedQueue<Scheduled> incoming = new ConcurrentLinkedQueue<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final long tickMillis;
+    private final HierarchicalTimingWheel<String> wheel;
+    private ScheduledExecutorService ticker;
+    private volatile boolean running;
+
+    public LinkExpiryWheel(ApplicationProperties properties) {
+        this.tickMillis = Math.max(1, properties.expiry().wheelTick().toMillis());
+        this.wheel = new HierarchicalTimingWheel<>(toTick(System.currentTimeMillis()));
+    }
+
+    public void onExpired(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    public void schedule(String shortKey, Instant expiresAt) {
+        incoming.add(new Scheduled(shortKey, expiresAt.toEpochMilli()));
+    }
+
+    public int pending() {
+        return wheel.size() + incoming.size();
+    }
+
+    void tick() {
+        try {
+            Scheduled scheduled;
+            while ((scheduled = incoming.poll()) != null) {
+                // round up so a key is never evicted before it has actually expired
+                wheel.schedule(scheduled.shortKey(), toTick(scheduled.expiresAtMillis() + tickMillis - 1));
+            }
+            wheel.advanceTo(toTick(System.currentTimeMillis()), this::fire);
+        } catch (RuntimeException e) {
+            log.error("Link expiry wheel tick failed", e);
+        }
+    }
+
+    private void fire(String shortKey) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(shortKey);
+        }
+    }
+
+    private long toTick(long epochMillis) {
+        return epochMillis / tickMillis;
+    }
+
+    @Override
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "link-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record Scheduled(String shortKey, long expiresAtMillis) {
+    }
+}
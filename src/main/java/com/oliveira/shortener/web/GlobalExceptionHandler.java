@@ -1,10 +1,15 @@
 package com.oliveira.shortener.web;
 
+import com.oliveira.shortener.domain.exceptions.AuthenticationOverloadedException;
+import com.oliveira.shortener.domain.exceptions.InvalidPageCursorException;
 import com.oliveira.shortener.domain.exceptions.ShortUrlNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -16,6 +21,20 @@ public class GlobalExceptionHandler {
         return "error/404";
     }
 
+    @ExceptionHandler(InvalidPageCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    String handleInvalidPageCursor(InvalidPageCursorException ex) {
+        log.warn(ex.getMessage());
+        return "error/400";
+    }
+
+    @ExceptionHandler(AuthenticationOverloadedException.class)
+    ResponseEntity<String> handleAuthenticationOverloaded(AuthenticationOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     String handleException(Exception ex) {
         log.error("Unhandled exception: {}", ex.getMessage(), ex);
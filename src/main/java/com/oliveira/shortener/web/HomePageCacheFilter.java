@@ -0,0 +1,94 @@
+package com.oliveira.shortener.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.services.PublicListingCache;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serves the rendered home page from memory to visitors without a session. Such requests are anonymous and
+ * carry no flash messages, so every one of them renders the same page for a given query string; a burst of
+ * them then costs one render instead of one per request. Dropped together with the {@link PublicListingCache}.
+ */
+public class HomePageCacheFilter implements Filter {
+    private static final String HOME = "/";
+
+    private final Cache<String, RenderedPage> pages;
+
+    public HomePageCacheFilter(PublicListingCache publicListingCache, ApplicationProperties.PublicListing config) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(config.cachedPages())
+                .expireAfterWrite(config.timeToLive())
+                .build();
+        publicListingCache.onInvalidate(pages::invalidateAll);
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) res;
+        if (!isCacheable(request)) {
+            chain.doFilter(req, res);
+            return;
+        }
+        String key = request.getQueryString() != null ? request.getQueryString() : "";
+        RenderedPage page = pages.getIfPresent(key);
+        if (page != null) {
+            page.writeTo(response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        // rendering must not have started a session or set a cookie, or the page is specific to this visitor
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && request.getSession(false) == null
+                && !wrapper.containsHeader(HttpHeaders.SET_COOKIE)) {
+            pages.put(key, RenderedPage.of(wrapper));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static boolean isCacheable(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && HOME.equals(request.getRequestURI().substring(request.getContextPath().length()))
+                && request.getSession(false) == null;
+    }
+
+    private record RenderedPage(String contentType, Locale locale, Map<String, List<String>> headers, byte[] body) {
+
+        static RenderedPage of(ContentCachingResponseWrapper response) {
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (String name : response.getHeaderNames()) {
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                    headers.put(name, new ArrayList<>(response.getHeaders(name)));
+                }
+            }
+            return new RenderedPage(response.getContentType(), response.getLocale(), headers, response.getContentAsByteArray());
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setLocale(locale);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.oliveira.shortener.web;
+
+import com.oliveira.shortener.web.RateLimiter.EndpointClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link RateLimiter} to redirects, link creation, bulk imports and sign-in/registration,
+ * ahead of the security filter chain so refused requests cost no session, validation or database work.
+ * Signed-in clients are limited by user id, anonymous ones by remote address (the proxy's address unless
+ * forwarded headers are honoured); refused requests get a 429 with {@code Retry-After}.
+ */
+public class RateLimitFilter implements Filter {
+    private static final byte[] TOO_MANY_REQUESTS_BODY = "Too many requests, slow down.\n".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(RateLimiter rateLimiter, MeterRegistry registry) {
+        this.rateLimiter = rateLimiter;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejections.put(endpointClass, Counter.builder("shortener.rate.limit.rejections")
+                    .description("Requests refused with 429 by the rate limiter")
+                    .tag("endpoint", endpointClass.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        EndpointClass endpointClass = classify(request);
+        if (endpointClass == null) {
+            chain.doFilter(req, res);
+            return;
+        }
+        Long userId = RedirectFilter.currentUserId(request);
+        String client = userId != null ? "user:" + userId : "address:" + request.getRemoteAddr();
+        long waitNanos = rateLimiter.tryAcquire(endpointClass, client);
+        if (waitNanos == 0) {
+            chain.doFilter(req, res);
+            return;
+        }
+        rejections.get(endpointClass).increment();
+        HttpServletResponse response = (HttpServletResponse) res;
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(Math.max(1, (waitNanos + 999_999_999) / TimeUnit.SECONDS.toNanos(1))));
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+        }
+    }
+
+    static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return path.startsWith("/s/") ? EndpointClass.REDIRECT : null;
+        }
+        if (!"POST".equals(method)) {
+            return null;
+        }
+        return switch (path) {
+            case "/short-urls" -> EndpointClass.CREATE;
+            case "/short-urls/bulk" -> EndpointClass.BULK;
+            case "/login", "/register" -> EndpointClass.AUTH;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.oliveira.shortener.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client, one set per endpoint class. Each bucket is a single {@link AtomicLong}
+ * holding the time at which it will be full again (the GCRA form of a token bucket): taking a token
+ * pushes that time forward by one refill interval, and the request is refused when it would end up
+ * more than {@code capacity} intervals ahead of now. Updates are a compare-and-set, so there are no locks.
+ * A bucket idle for longer than it takes to refill is indistinguishable from a new one, so idle buckets
+ * are evicted; {@code maxClients} bounds the map when a flood of distinct clients arrives.
+ */
+public class RateLimiter {
+
+    public enum EndpointClass {
+        REDIRECT, CREATE, BULK, AUTH
+    }
+
+    public record Limit(long capacity, double perSecond) {
+    }
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long[] intervals = new long[EndpointClass.values().length];
+    private final long[] tolerances = new long[EndpointClass.values().length];
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(Map<EndpointClass, Limit> limits, long maxClients, Duration idleTimeout,
+                       LongSupplier nanoClock) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            Limit limit = limits.get(endpointClass);
+            long interval = limit != null ? (long) (TimeUnit.SECONDS.toNanos(1) / limit.perSecond()) : 0;
+            intervals[endpointClass.ordinal()] = interval;
+            tolerances[endpointClass.ordinal()] = limit != null ? interval * limit.capacity() : 0;
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the client gets a token back
+     */
+    public long tryAcquire(EndpointClass endpointClass, String client) {
+        int index = endpointClass.ordinal();
+        long interval = intervals[index];
+        if (interval == 0) {
+            return 0;
+        }
+        long tolerance = tolerances[index];
+        AtomicLong bucket = buckets.get(index + client, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + interval;
+            long ahead = next - now;
+            if (ahead > tolerance) {
+                return ahead - tolerance;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long trackedClients() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,129 @@
+package com.oliveira.shortener.web;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.analytics.ClickAnalytics;
+import com.oliveira.shortener.domain.models.AuthenticatedUser;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.services.PrincipalInvalidations;
+import com.oliveira.shortener.domain.services.ShortUrlService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Serves {@code /s/{key}} directly from the servlet container, ahead of the security filter chain,
+ * the MVC dispatcher and Thymeleaf. Private links are still resolved against the user stored in
+ * an existing session, unless {@link PrincipalInvalidations} says that user changed since it was stored
+ * (the session is then treated as anonymous, as the refresh only happens in the security filter chain);
+ * requests that do not look like a plain key fall through to MVC.
+ */
+public class RedirectFilter implements Filter {
+    private static final String PREFIX = "/s/";
+    private static final int MAX_KEY_LENGTH = 10;
+    private static final byte[] NOT_FOUND_BODY = """
+            <!DOCTYPE html><html lang="en"><head><meta charset="UTF-8"><title>Not Found</title></head>\
+            <body><h1>404 - Short URL not found</h1><p><a href="/">Go to home page</a></p></body></html>"""
+            .getBytes(StandardCharsets.UTF_8);
+    private static final String PRIVATE_CACHE_CONTROL = "private, no-store";
+    // a cached 404 would hide a key that is created moments later
+    private static final String NOT_FOUND_CACHE_CONTROL = "no-store";
+
+    private final ShortUrlService shortUrlService;
+    private final ClickAnalytics clickAnalytics;
+    private final PrincipalInvalidations principalInvalidations;
+    private final int redirectStatus;
+    private final String cacheControl;
+
+    public RedirectFilter(ShortUrlService shortUrlService, ClickAnalytics clickAnalytics,
+                          PrincipalInvalidations principalInvalidations, ApplicationProperties.Redirect config) {
+        this.shortUrlService = shortUrlService;
+        this.clickAnalytics = clickAnalytics;
+        this.principalInvalidations = principalInvalidations;
+        this.redirectStatus = config.status();
+        this.cacheControl = config.cacheControl();
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) res;
+        String method = request.getMethod();
+        String shortKey = "GET".equals(method) || "HEAD".equals(method) ? extractShortKey(request) : null;
+        if (shortKey == null) {
+            chain.doFilter(req, res);
+            return;
+        }
+
+        Optional<RedirectEntry> entry = shortUrlService.accessShortUrl(shortKey, freshUserId(request));
+        if (entry.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.setContentType("text/html;charset=UTF-8");
+            response.setHeader("Cache-Control", NOT_FOUND_CACHE_CONTROL);
+            response.setContentLength(NOT_FOUND_BODY.length);
+            if (!"HEAD".equals(method)) {
+                response.getOutputStream().write(NOT_FOUND_BODY);
+            }
+            return;
+        }
+        RedirectEntry redirectEntry = entry.get();
+        clickAnalytics.publish(redirectEntry, request);
+        response.setStatus(redirectStatus);
+        response.setHeader("Location", redirectEntry.originalUrl());
+        response.setHeader("Cache-Control",
+                Boolean.TRUE.equals(redirectEntry.isPrivate()) ? PRIVATE_CACHE_CONTROL : cacheControl);
+        response.setContentLength(0);
+    }
+
+    private static String extractShortKey(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int start = request.getContextPath().length() + PREFIX.length();
+        int length = uri.length() - start;
+        if (length <= 0 || length > MAX_KEY_LENGTH || !uri.startsWith(PREFIX, start - PREFIX.length())) {
+            return null;
+        }
+        for (int i = start; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'))) {
+                return null;
+            }
+        }
+        return uri.substring(start);
+    }
+
+    private Long freshUserId(HttpServletRequest request) {
+        AuthenticatedUser user = sessionUser(request);
+        return user != null && !principalInvalidations.isStale(user) ? user.getId() : null;
+    }
+
+    static Long currentUserId(HttpServletRequest request) {
+        AuthenticatedUser user = sessionUser(request);
+        return user != null ? user.getId() : null;
+    }
+
+    private static AuthenticatedUser sessionUser(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return null;
+        }
+        Object context = session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+        if (context instanceof SecurityContext securityContext) {
+            Authentication auth = securityContext.getAuthentication();
+            if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+                return user;
+            }
+        }
+        return null;
+    }
+}
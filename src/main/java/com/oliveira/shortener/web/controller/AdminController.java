@@ -1,9 +1,18 @@
 package com.oliveira.shortener.web.controller;
 
 import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.analytics.ClickAnalytics;
+import com.oliveira.shortener.domain.analytics.HotLinkTracker;
+import com.oliveira.shortener.domain.analytics.UniqueVisitorCounter;
+import com.oliveira.shortener.domain.models.HotLinkStats;
+import com.oliveira.shortener.domain.models.PageQuery;
 import com.oliveira.shortener.domain.models.PagedResult;
 import com.oliveira.shortener.domain.models.ShortUrlDto;
+import com.oliveira.shortener.domain.services.RedirectCache;
+import com.oliveira.shortener.domain.services.ShortKeyFilter;
+import com.oliveira.shortener.domain.services.ShortUrlExporter;
 import com.oliveira.shortener.domain.services.ShortUrlService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -11,26 +20,61 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.IOException;
+
 @Controller
 @RequestMapping("/admin")
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
     private final ShortUrlService shortUrlService;
     private final ApplicationProperties properties;
+    private final RedirectCache redirectCache;
+    private final ShortKeyFilter shortKeyFilter;
+    private final ClickAnalytics clickAnalytics;
+    private final ShortUrlExporter shortUrlExporter;
+    private final HotLinkTracker hotLinkTracker;
+    private final UniqueVisitorCounter uniqueVisitorCounter;
 
-    public AdminController(ShortUrlService shortUrlService, ApplicationProperties properties) {
+    public AdminController(ShortUrlService shortUrlService, ApplicationProperties properties, RedirectCache redirectCache,
+                           ShortKeyFilter shortKeyFilter, ClickAnalytics clickAnalytics,
+                           ShortUrlExporter shortUrlExporter, HotLinkTracker hotLinkTracker,
+                           UniqueVisitorCounter uniqueVisitorCounter) {
         this.shortUrlService = shortUrlService;
         this.properties = properties;
+        this.redirectCache = redirectCache;
+        this.shortKeyFilter = shortKeyFilter;
+        this.clickAnalytics = clickAnalytics;
+        this.shortUrlExporter = shortUrlExporter;
+        this.hotLinkTracker = hotLinkTracker;
+        this.uniqueVisitorCounter = uniqueVisitorCounter;
     }
 
     @GetMapping("/dashboard")
     public String dashboard(
             @RequestParam(defaultValue = "1") int page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             Model model) {
-        PagedResult<ShortUrlDto> allUrls = shortUrlService.findAllShortUrls(page, properties.pageSize());
+        PagedResult<ShortUrlDto> allUrls =
+                shortUrlService.findAllShortUrls(new PageQuery(page, after, before, properties.pageSize()));
         model.addAttribute("shortUrls", allUrls);
+        model.addAttribute("uniqueVisitors",
+                uniqueVisitorCounter.uniqueVisitors(allUrls.data().stream().map(ShortUrlDto::id).toList()));
         model.addAttribute("baseUrl", properties.baseUrl());
         model.addAttribute("paginationUrl", "/admin/dashboard");
+        model.addAttribute("redirectCacheStats", redirectCache.stats());
+        model.addAttribute("redirectCacheObjectBytes", redirectCache.objectGraphBytes());
+        model.addAttribute("keyFilterStats", shortKeyFilter.stats());
+        model.addAttribute("clickAnalyticsStats", clickAnalytics.stats());
+        HotLinkStats hotLinks = hotLinkTracker.stats();
+        model.addAttribute("hotLinks", hotLinks);
+        model.addAttribute("hotLinkUrls", shortUrlService.findShortUrlsByIds(hotLinks.shortUrlIds()));
         return "admin-dashboard";
     }
-}
\ No newline at end of file
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "csv") String format,
+                       HttpServletResponse response) throws IOException {
+        ExportResponses.export(format, "short-urls", response, shortUrlExporter::exportAll);
+    }
+}
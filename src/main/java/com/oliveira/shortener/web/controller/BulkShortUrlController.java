@@ -0,0 +1,65 @@
+package com.oliveira.shortener.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.oliveira.shortener.domain.models.DataFormat;
+import com.oliveira.shortener.domain.models.BulkShortUrlResult;
+import com.oliveira.shortener.domain.services.BulkRowReader;
+import com.oliveira.shortener.domain.services.BulkShortUrlService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code POST /short-urls/bulk} with a {@code text/csv} or {@code application/x-ndjson} body.
+ * Answers with one NDJSON result per input row, written and flushed batch by batch while the upload is read.
+ */
+@Controller
+public class BulkShortUrlController {
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final BulkShortUrlService bulkShortUrlService;
+    private final SecurityUtils securityUtils;
+    private final ObjectWriter resultWriter;
+    private final ObjectMapper objectMapper;
+
+    public BulkShortUrlController(BulkShortUrlService bulkShortUrlService, SecurityUtils securityUtils,
+                                  ObjectMapper objectMapper) {
+        this.bulkShortUrlService = bulkShortUrlService;
+        this.securityUtils = securityUtils;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(BulkShortUrlResult.class);
+    }
+
+    @PostMapping(value = "/short-urls/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    public void createShortUrls(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DataFormat format = request.getContentType().startsWith(DataFormat.CSV.mediaType())
+                ? DataFormat.CSV
+                : DataFormat.NDJSON;
+        BufferedReader body = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        response.setContentType(DataFormat.NDJSON.mediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        bulkShortUrlService.createShortUrls(securityUtils.getCurrentUserId(),
+                new BulkRowReader(body, format, objectMapper),
+                results -> {
+                    try {
+                        for (BulkShortUrlResult result : results) {
+                            out.write(resultWriter.writeValueAsBytes(result));
+                            out.write(NEWLINE);
+                        }
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+}
@@ -0,0 +1,34 @@
+package com.oliveira.shortener.web.controller;
+
+import com.oliveira.shortener.domain.models.DataFormat;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    static void export(String format, String fileName, HttpServletResponse response, Body body) throws IOException {
+        DataFormat dataFormat;
+        try {
+            dataFormat = DataFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported export format: " + format);
+            return;
+        }
+        response.setContentType(dataFormat.mediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + fileName + "." + dataFormat.extension() + "\"");
+        body.write(dataFormat, response.getOutputStream());
+    }
+
+    @FunctionalInterface
+    interface Body {
+        void write(DataFormat format, OutputStream out) throws IOException;
+    }
+}
@@ -1,13 +1,20 @@
 package com.oliveira.shortener.web.controller;
 
 
+import com.oliveira.shortener.domain.analytics.ClickAnalytics;
+import com.oliveira.shortener.domain.analytics.UniqueVisitorCounter;
 import com.oliveira.shortener.domain.exceptions.ShortUrlNotFoundException;
 import com.oliveira.shortener.domain.models.CreateShortUrl;
+import com.oliveira.shortener.domain.models.PageQuery;
 import com.oliveira.shortener.domain.models.PagedResult;
+import com.oliveira.shortener.domain.models.RedirectEntry;
 import com.oliveira.shortener.domain.models.ShortUrlDto;
+import com.oliveira.shortener.domain.services.ShortUrlExporter;
 import com.oliveira.shortener.domain.services.ShortUrlService;
 import com.oliveira.shortener.ApplicationProperties;
 import com.oliveira.shortener.web.dtos.CreateShortUrlForm;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -17,6 +24,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,11 +34,19 @@ public class HomeController {
     private final ShortUrlService shortUrlService;
     private final ApplicationProperties properties;
     private final SecurityUtils securityUtils;
+    private final ClickAnalytics clickAnalytics;
+    private final ShortUrlExporter shortUrlExporter;
+    private final UniqueVisitorCounter uniqueVisitorCounter;
 
-    public HomeController(ShortUrlService shortUrlService, ApplicationProperties properties, SecurityUtils securityUtils) {
+    public HomeController(ShortUrlService shortUrlService, ApplicationProperties properties, SecurityUtils securityUtils,
+                          ClickAnalytics clickAnalytics, ShortUrlExporter shortUrlExporter,
+                          UniqueVisitorCounter uniqueVisitorCounter) {
         this.shortUrlService = shortUrlService;
         this.properties = properties;
         this.securityUtils = securityUtils;
+        this.clickAnalytics = clickAnalytics;
+        this.shortUrlExporter = shortUrlExporter;
+        this.uniqueVisitorCounter = uniqueVisitorCounter;
     }
 
 
@@ -40,17 +56,20 @@ public class HomeController {
 //            Pageable pageable,
 //            @PageableDefault(page = 1, size = 10)
             Integer page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             Model model
     ) {
-        this.addShortUrlToModel(model, 1);
+        this.addShortUrlToModel(model, new PageQuery(page, after, before, properties.pageSize()));
         model.addAttribute("createShortUrlForm", new CreateShortUrlForm("", false, null));
         return "index";
     }
 
-    private void addShortUrlToModel(Model model, int pageN) {
-        PagedResult<ShortUrlDto> shortUrls = shortUrlService.findAllPublicShortUrls(pageN, properties.pageSize());
+    private void addShortUrlToModel(Model model, PageQuery pageQuery) {
+        PagedResult<ShortUrlDto> shortUrls = shortUrlService.findAllPublicShortUrls(pageQuery);
         model.addAttribute("shortUrls", shortUrls);
         model.addAttribute("baseUrl", properties.baseUrl());
+        model.addAttribute("paginationUrl", "/");
     }
 
     @PostMapping("/short-urls")
@@ -60,7 +79,7 @@ public class HomeController {
                           Model model) {
 
         if (bindingResult.hasErrors()) {
-            this.addShortUrlToModel(model, 1);
+            this.addShortUrlToModel(model, PageQuery.ofPage(1, properties.pageSize()));
             return "index";
         }
 
@@ -82,14 +101,15 @@ public class HomeController {
     }
 
     @GetMapping("/s/{shortKey}")
-    String redirectToOriginalUrl(@PathVariable String shortKey) {
+    String redirectToOriginalUrl(@PathVariable String shortKey, HttpServletRequest request) {
         Long userId = securityUtils.getCurrentUserId();
-        Optional<ShortUrlDto> shortUrlDtoOptional = shortUrlService.accessShortUrl(shortKey, userId);
-        if(shortUrlDtoOptional.isEmpty()) {
+        Optional<RedirectEntry> redirectEntryOptional = shortUrlService.accessShortUrl(shortKey, userId);
+        if(redirectEntryOptional.isEmpty()) {
             throw new ShortUrlNotFoundException("Invalid short key: "+shortKey);
         }
-        ShortUrlDto shortUrlDto = shortUrlDtoOptional.get();
-        return "redirect:"+shortUrlDto.originalUrl();
+        RedirectEntry redirectEntry = redirectEntryOptional.get();
+        clickAnalytics.publish(redirectEntry, request);
+        return "redirect:"+redirectEntry.originalUrl();
     }
 
     @GetMapping("/login")
@@ -99,16 +119,32 @@ public class HomeController {
     @GetMapping("/my-urls")
     public String showUserUrls(
             @RequestParam(defaultValue = "1") int page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             Model model) {
         var currentUserId = securityUtils.getCurrentUserId();
         PagedResult<ShortUrlDto> myUrls =
-                shortUrlService.getUserShortUrls(currentUserId, page, properties.pageSize());
+                shortUrlService.getUserShortUrls(currentUserId, new PageQuery(page, after, before, properties.pageSize()));
         model.addAttribute("shortUrls", myUrls);
+        model.addAttribute("uniqueVisitors",
+                uniqueVisitorCounter.uniqueVisitors(myUrls.data().stream().map(ShortUrlDto::id).toList()));
         model.addAttribute("baseUrl", properties.baseUrl());
         model.addAttribute("paginationUrl", "/my-urls");
         return "my-urls";
     }
 
+    @GetMapping("/my-urls/export")
+    public void exportUserUrls(@RequestParam(defaultValue = "csv") String format,
+                               HttpServletResponse response) throws IOException {
+        Long userId = securityUtils.getCurrentUserId();
+        if (userId == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        ExportResponses.export(format, "my-urls", response,
+                (dataFormat, out) -> shortUrlExporter.export(userId, dataFormat, out));
+    }
+
     @PostMapping("/delete-urls")
     public String deleteUrls(
             @RequestParam(value = "ids", required = false) List<Long> ids,
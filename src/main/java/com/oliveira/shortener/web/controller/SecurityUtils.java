@@ -1,7 +1,6 @@
 package com.oliveira.shortener.web.controller;
 
-import com.oliveira.shortener.domain.entities.User;
-import com.oliveira.shortener.domain.repository.UserRepository;
+import com.oliveira.shortener.domain.models.AuthenticatedUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -9,25 +8,18 @@ import org.springframework.stereotype.Service;
 @Service
 public class SecurityUtils {
 
-    private final UserRepository userRepository;
-
-    public SecurityUtils(UserRepository userRepository) {
-        this.userRepository = userRepository;
-    }
-
-    public User getCurrentUser() {
+    public AuthenticatedUser getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
-        if (auth != null && auth.isAuthenticated()) {
-            String email = auth.getName();
-            return userRepository.findByEmail(email).orElse(null);
+        if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
         }
 
         return null;
     }
 
     public Long getCurrentUserId() {
-        User user = getCurrentUser();
+        AuthenticatedUser user = getCurrentUser();
         return user != null ? user.getId() : null;
     }
 }
@@ -1,5 +1,6 @@
 package com.oliveira.shortener.web.controller;
 
+import com.oliveira.shortener.domain.exceptions.AuthenticationOverloadedException;
 import com.oliveira.shortener.domain.models.CreateUser;
 import com.oliveira.shortener.domain.models.Role;
 import com.oliveira.shortener.domain.services.UserService;
@@ -48,6 +49,8 @@ public class UserController {
             userService.createUser(createUser);
             redirectAttributes.addFlashAttribute("successMessage", "Registration successful! Please login.");
             return "redirect:/login";
+        } catch (AuthenticationOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Registration failed: " + e.getMessage());
             return "redirect:/register";
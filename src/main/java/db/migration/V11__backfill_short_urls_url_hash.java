@@ -0,0 +1,51 @@
+package db.migration;
+
+import com.oliveira.shortener.domain.services.UrlNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fills url_hash (added by V9) for links created before it, so deduplication also finds them. The hash is
+ * {@link UrlNormalizer#contentHash}, which SQL cannot compute, hence a Java migration; rows are read in id order,
+ * {@value #BATCH_SIZE} at a time.
+ */
+public class V11__backfill_short_urls_url_hash extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement("""
+                SELECT id, original_url FROM short_urls
+                WHERE url_hash IS NULL AND id > ?
+                ORDER BY id
+                LIMIT %d
+                """.formatted(BATCH_SIZE));
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE short_urls SET url_hash = ? WHERE id = ?")) {
+            long lastId = Long.MIN_VALUE;
+            int rows;
+            do {
+                rows = 0;
+                select.setLong(1, lastId);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getLong(1);
+                        update.setBytes(1, UrlNormalizer.contentHash(resultSet.getString(2)));
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows > 0) {
+                    update.executeBatch();
+                }
+            } while (rows == BATCH_SIZE);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- all-time union of a link's visitors, the only row the listings read
+CREATE TABLE short_url_visitors
+(
+    short_url_id BIGINT    NOT NULL PRIMARY KEY,
+    sketch       BYTEA     NOT NULL,
+    updated_at   TIMESTAMP NOT NULL,
+    CONSTRAINT fk_short_url_visitors_short_urls FOREIGN KEY (short_url_id) REFERENCES short_urls (id) ON DELETE CASCADE
+);
+
+-- one sketch per link and UTC day for date range queries, kept for app.analytics.visitors-retention-days
+CREATE TABLE short_url_daily_visitors
+(
+    short_url_id BIGINT    NOT NULL,
+    visit_date   DATE      NOT NULL,
+    sketch       BYTEA     NOT NULL,
+    updated_at   TIMESTAMP NOT NULL,
+    PRIMARY KEY (short_url_id, visit_date),
+    CONSTRAINT fk_short_url_daily_visitors_short_urls FOREIGN KEY (short_url_id) REFERENCES short_urls (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_short_url_daily_visitors_visit_date ON short_url_daily_visitors (visit_date);
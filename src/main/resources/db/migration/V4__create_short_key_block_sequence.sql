@@ -0,0 +1 @@
+CREATE SEQUENCE short_key_block_seq START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,3 @@
+CREATE INDEX idx_short_urls_created_at_id ON short_urls (created_at DESC, id DESC);
+CREATE INDEX idx_short_urls_public_created_at_id ON short_urls (is_private, created_at DESC, id DESC);
+CREATE INDEX idx_short_urls_created_by_created_at_id ON short_urls (created_by, created_at DESC, id DESC);
@@ -0,0 +1 @@
+CREATE INDEX idx_short_urls_expires_at ON short_urls (expires_at);
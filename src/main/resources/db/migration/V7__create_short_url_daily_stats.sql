@@ -0,0 +1,10 @@
+CREATE TABLE short_url_daily_stats
+(
+    short_url_id  BIGINT NOT NULL,
+    click_date    DATE   NOT NULL,
+    clicks        BIGINT NOT NULL DEFAULT 0,
+    mobile_clicks BIGINT NOT NULL DEFAULT 0,
+    bot_clicks    BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (short_url_id, click_date),
+    CONSTRAINT fk_short_url_daily_stats_short_urls FOREIGN KEY (short_url_id) REFERENCES short_urls (id) ON DELETE CASCADE
+);
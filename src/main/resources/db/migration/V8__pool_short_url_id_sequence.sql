@@ -0,0 +1,2 @@
+-- must match ShortUrl.ID_ALLOCATION_SIZE
+ALTER SEQUENCE IF EXISTS short_urls_id_seq INCREMENT BY 50;
@@ -0,0 +1,3 @@
+-- SHA-256 of the canonical original url, see UrlNormalizer.contentHash
+ALTER TABLE short_urls ADD COLUMN url_hash BYTEA;
+CREATE INDEX idx_short_urls_url_hash ON short_urls (url_hash);
@@ -3,7 +3,7 @@ package com.oliveira.shortener;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.short-key.secret=982451653")
 class ShortenerApplicationTests {
 
 	@Test
@@ -0,0 +1,60 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.domain.exceptions.AuthenticationOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void verifiesOnTheWorkersAndAsksToRehashOtherStrengths() {
+        try (var encoder = new BoundedPasswordEncoder(5, 1, 4, new SimpleMeterRegistry())) {
+            String encoded = encoder.encode("secret");
+
+            assertThat(encoder.matches("secret", encoded)).isTrue();
+            assertThat(encoder.matches("wrong", encoded)).isFalse();
+            assertThat(encoder.upgradeEncoding(encoded)).isFalse();
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(10).encode("secret"))).isTrue();
+        }
+    }
+
+    @Test
+    void shedsChecksOnceTheQueueIsFull() throws InterruptedException {
+        String encoded = new BCryptPasswordEncoder(13).encode("secret");
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try (var encoder = new BoundedPasswordEncoder(13, 1, 1, new SimpleMeterRegistry())) {
+            List<Future<Boolean>> checks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                checks.add(clients.submit(() -> encoder.matches("secret", encoded)));
+            }
+
+            int verified = 0;
+            int shed = 0;
+            for (Future<Boolean> check : checks) {
+                try {
+                    assertThat(check.get()).isTrue();
+                    verified++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(AuthenticationOverloadedException.class);
+                    shed++;
+                }
+            }
+            // one check running, one queued
+            assertThat(verified).isLessThanOrEqualTo(2);
+            assertThat(verified + shed).isEqualTo(4);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.oliveira.shortener.config;
+
+import com.oliveira.shortener.domain.events.UserUpdatedEvent;
+import com.oliveira.shortener.domain.models.AuthenticatedUser;
+import com.oliveira.shortener.domain.models.Role;
+import com.oliveira.shortener.domain.services.PrincipalInvalidations;
+import com.oliveira.shortener.domain.services.SecurityUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalRefreshFilterTest {
+    private final Map<String, AuthenticatedUser> users = new HashMap<>();
+    private final PrincipalInvalidations invalidations = new PrincipalInvalidations(new ServerProperties());
+    private final PrincipalRefreshFilter filter = new PrincipalRefreshFilter(invalidations,
+            new SecurityUserDetailsService(null, event -> {
+            }) {
+                @Override
+                public AuthenticatedUser loadUserByUsername(String username) {
+                    AuthenticatedUser user = users.get(username);
+                    if (user == null) {
+                        throw new UsernameNotFoundException(username);
+                    }
+                    return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(),
+                            user.getName(), user.getRole());
+                }
+            },
+            new HttpSessionSecurityContextRepository());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void reloadsThePrincipalOnlyAfterTheUserChanged() throws Exception {
+        users.put("ana@example.com", new AuthenticatedUser(1L, "ana@example.com", "hash", "Ana", Role.ROLE_USER));
+        signIn(new AuthenticatedUser(1L, "ana@example.com", "hash", "Ana", Role.ROLE_USER));
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(currentUser().getRole()).isEqualTo(Role.ROLE_USER);
+
+        users.put("ana@example.com", new AuthenticatedUser(1L, "ana@example.com", "hash", "Ana B", Role.ROLE_ADMIN));
+        invalidations.onUserUpdated(new UserUpdatedEvent(1L));
+        var request = new MockHttpServletRequest();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(currentUser().getRole()).isEqualTo(Role.ROLE_ADMIN);
+        assertThat(currentUser().getName()).isEqualTo("Ana B");
+        assertThat(currentUser().getPassword()).isNull();
+        assertThat(request.getSession(false)).isNotNull();
+    }
+
+    @Test
+    void logsTheSessionOutOnceTheUserIsGone() throws Exception {
+        AuthenticatedUser user = new AuthenticatedUser(2L, "bo@example.com", "hash", "Bo", Role.ROLE_USER);
+        signIn(user);
+        invalidations.invalidate(2L);
+        var session = new MockHttpSession();
+        var request = new MockHttpServletRequest();
+        request.setSession(session);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(session.isInvalid()).isTrue();
+    }
+
+    private static void signIn(AuthenticatedUser user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+    }
+
+    private static AuthenticatedUser currentUser() {
+        return (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+}
@@ -0,0 +1,136 @@
+package com.oliveira.shortener.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private ReadYourWrites readYourWrites;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplicasUntilTheClientWrites() {
+        JdbcTemplate jdbcTemplate = routedTemplate(List.of(replica));
+        inRequestFrom("10.0.0.1");
+
+        assertThat(read(jdbcTemplate)).isEqualTo("replica");
+        assertThat(write(jdbcTemplate)).isEqualTo("primary");
+        assertThat(read(jdbcTemplate)).isEqualTo("primary");
+
+        inRequestFrom("10.0.0.2");
+        assertThat(read(jdbcTemplate)).isEqualTo("replica");
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhenNoReplicaIsHealthy() {
+        DataSource down = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("replica is down");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(down, replica), () -> false);
+        JdbcTemplate jdbcTemplate = template(routing);
+
+        assertThat(List.of(read(jdbcTemplate), read(jdbcTemplate), read(jdbcTemplate)))
+                .containsOnly("replica");
+        routing.checkHealth();
+        assertThat(routing.healthyReplicas()).isEqualTo(1);
+
+        ReplicaRoutingDataSource allDown = new ReplicaRoutingDataSource(primary, List.of(down), () -> false);
+        assertThat(read(template(allDown))).isEqualTo("primary");
+    }
+
+    @Test
+    void sendsExplicitCredentialsToThePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), () -> false);
+
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+        }
+    }
+
+    private JdbcTemplate routedTemplate(List<DataSource> replicas) {
+        return template(new ReplicaRoutingDataSource(primary, replicas, readYourWrites::isPinnedToPrimary));
+    }
+
+    private JdbcTemplate template(ReplicaRoutingDataSource routing) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(readYourWrites);
+        return new JdbcTemplate(dataSource);
+    }
+
+    private String read(JdbcTemplate jdbcTemplate) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private String write(JdbcTemplate jdbcTemplate) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        });
+    }
+
+    private static void inRequestFrom(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name + "-" + System.nanoTime())
+                .build();
+        new JdbcTemplate(database).execute("CREATE TABLE node (name VARCHAR(20), writes INT)");
+        new JdbcTemplate(database).update("INSERT INTO node VALUES (?, 0)", name);
+        return database;
+    }
+}
@@ -0,0 +1,75 @@
+package com.oliveira.shortener.domain.analytics;
+
+import com.oliveira.shortener.domain.models.ClickEvent;
+import com.oliveira.shortener.domain.models.HotLink;
+import com.oliveira.shortener.domain.models.HotLinkWindow;
+import com.oliveira.shortener.domain.models.UserAgentClass;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotLinkTrackerTest {
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private final HotLinkTracker tracker = new HotLinkTracker(true,
+            List.of(Duration.ofMinutes(5), Duration.ofHours(1)), 12, 3, 4, 256, clock::get);
+
+    @Test
+    void ranksTheHeaviestLinksAmongManyLightOnes() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 20_000; i++) {
+            long id = switch (i % 10) {
+                case 0, 1, 2 -> 1;
+                case 3, 4 -> 2;
+                case 5 -> 3;
+                default -> 100 + random.nextInt(5_000);
+            };
+            click(id);
+        }
+        tracker.flush();
+
+        HotLinkWindow window = tracker.stats().windows().getFirst();
+        assertThat(window.label()).isEqualTo("5m");
+        assertThat(window.clicks()).isEqualTo(20_000);
+        assertThat(window.links()).extracting(HotLink::shortUrlId).containsExactly(1L, 2L, 3L);
+        // Count-Min never undercounts and overcounts by at most e / width of the total with high probability
+        assertThat(window.links().getFirst().clicks()).isBetween(6_000L, 6_000L + 20_000 * 3 / 256);
+        assertThat(tracker.stats().shortUrlIds()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void forgetsClicksOnceTheyLeaveTheWindow() {
+        for (int i = 0; i < 50; i++) {
+            click(1);
+        }
+        clock.addAndGet(3 * MINUTE);
+        for (int i = 0; i < 10; i++) {
+            click(2);
+        }
+        clock.addAndGet(3 * MINUTE);
+        tracker.flush();
+
+        List<HotLinkWindow> windows = tracker.stats().windows();
+        assertThat(windows.get(0).clicks()).isEqualTo(10);
+        assertThat(windows.get(0).links()).containsExactly(new HotLink(2, 10));
+        assertThat(windows.get(1).label()).isEqualTo("1h");
+        assertThat(windows.get(1).links()).containsExactly(new HotLink(1, 50), new HotLink(2, 10));
+
+        clock.addAndGet(2 * 60 * MINUTE);
+        tracker.flush();
+        assertThat(tracker.stats().windows()).allSatisfy(window -> {
+            assertThat(window.clicks()).isZero();
+            assertThat(window.links()).isEmpty();
+        });
+    }
+
+    private void click(long shortUrlId) {
+        tracker.accept(new ClickEvent(clock.get(), shortUrlId, null, UserAgentClass.DESKTOP, shortUrlId));
+    }
+}
@@ -0,0 +1,113 @@
+package com.oliveira.shortener.domain.analytics;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.ClickEvent;
+import com.oliveira.shortener.domain.models.DailyVisitorSketch;
+import com.oliveira.shortener.domain.models.UserAgentClass;
+import com.oliveira.shortener.domain.repository.VisitorSketchRepository;
+import com.oliveira.shortener.domain.sketch.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UniqueVisitorCounterTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    private final VisitorSketchRepository repository = mock(VisitorSketchRepository.class);
+    private long now = at(DAY.plusDays(1));
+    private final UniqueVisitorCounter counter = new UniqueVisitorCounter(repository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), analytics(), () -> now);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mergesPendingDaysIntoTheStoredDayRowsAndTheAllTimeRow() {
+        when(repository.lockTotalSketches(any())).thenReturn(Map.of(1L, sketch(1, 2).toBytes()));
+        when(repository.lockDailySketches(any(), any()))
+                .thenReturn(List.of(new DailyVisitorSketch(1L, DAY, sketch(1).toBytes())));
+
+        counter.accept(click(1L, DAY, 2));
+        counter.accept(click(1L, DAY, 2));
+        counter.accept(click(1L, DAY.plusDays(1), 3));
+        counter.accept(new ClickEvent(at(DAY), 1L, null, UserAgentClass.BOT, mix(4)));
+        counter.flush();
+
+        ArgumentCaptor<Map<Long, byte[]>> totals = ArgumentCaptor.forClass(Map.class);
+        verify(repository).saveTotalSketches(totals.capture(), anyInt());
+        assertThat(HyperLogLog.fromBytes(totals.getValue().get(1L)).estimate()).isEqualTo(3);
+        ArgumentCaptor<Collection<DailyVisitorSketch>> days = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).saveDailySketches(days.capture(), anyInt());
+        assertThat(days.getValue())
+                .extracting(DailyVisitorSketch::visitDate, sketch -> HyperLogLog.fromBytes(sketch.sketch()).estimate())
+                .containsExactlyInAnyOrder(tuple(DAY, 2L), tuple(DAY.plusDays(1), 1L));
+    }
+
+    @Test
+    void readsTheAllTimeRowForListingsAndUnionsDaysForRanges() {
+        when(repository.findTotalSketches(List.of(1L))).thenReturn(Map.of(1L, sketch(1, 2, 3).toBytes()));
+        when(repository.findDailySketches(List.of(1L, 2L), DAY, DAY.plusDays(1))).thenReturn(List.of(
+                new DailyVisitorSketch(1L, DAY, sketch(1, 2).toBytes()),
+                new DailyVisitorSketch(1L, DAY.plusDays(1), sketch(2, 3).toBytes())));
+
+        assertThat(counter.uniqueVisitors(List.of(1L))).containsExactly(Map.entry(1L, 3L));
+        assertThat(counter.uniqueVisitors(List.of(1L, 2L), DAY, DAY.plusDays(1))).containsExactly(Map.entry(1L, 3L));
+    }
+
+    @Test
+    void deletesDaysPastTheRetentionOncePerDay() {
+        counter.flush();
+        counter.flush();
+        now = at(DAY.plusDays(2));
+        counter.flush();
+
+        verify(repository, times(1)).deleteDailySketchesBefore(DAY.minusDays(28));
+        verify(repository, times(1)).deleteDailySketchesBefore(DAY.minusDays(27));
+    }
+
+    private static HyperLogLog sketch(long... visitors) {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (long visitor : visitors) {
+            sketch.add(mix(visitor));
+        }
+        return sketch;
+    }
+
+    private static ClickEvent click(long shortUrlId, LocalDate day, long visitor) {
+        return new ClickEvent(at(day), shortUrlId, null, UserAgentClass.DESKTOP, mix(visitor));
+    }
+
+    private static long at(LocalDate day) {
+        return day.atTime(12, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // stands in for the client HMAC, which is uniformly distributed
+    private static long mix(long value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static ApplicationProperties.Analytics analytics() {
+        return new ApplicationProperties.Analytics(true, 1024, Duration.ofSeconds(10), 500, "secret", false,
+                "click-log", DataSize.ofMegabytes(1), 1, false, List.of(Duration.ofMinutes(5)), 1, 1, 1, 16,
+                true, 12, 16, 30);
+    }
+}
@@ -0,0 +1,65 @@
+package com.oliveira.shortener.domain.compact;
+
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRedirectTableTest {
+
+    @Test
+    void returnsWhatWasStoredUntilRemoved() {
+        var table = new CompactRedirectTable(100_000, Duration.ofMinutes(10));
+        Instant expiresAt = Instant.parse("2030-01-01T00:00:00Z");
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(table.put(new RedirectEntry((long) i, "k" + i, "https://host" + (i % 50) + ".example.com/p/" + i,
+                    i % 2 == 0 ? expiresAt : null, i % 3 == 0, i % 5 == 0 ? (long) i : null))).isTrue();
+        }
+        table.put(new RedirectEntry(1L, "k1", "https://example.com/café?x=日本", null, true, 7L));
+        assertThat(table.put(new RedirectEntry(2L, "bad-key", "https://example.com", null, false, null))).isFalse();
+
+        assertThat(table.size()).isEqualTo(20_000);
+        for (int i = 2; i < 20_000; i++) {
+            assertThat(table.get("k" + i)).isEqualTo(new RedirectEntry((long) i, "k" + i,
+                    "https://host" + (i % 50) + ".example.com/p/" + i,
+                    i % 2 == 0 ? expiresAt : null, i % 3 == 0, i % 5 == 0 ? (long) i : null));
+        }
+        assertThat(table.get("k1")).isEqualTo(new RedirectEntry(1L, "k1", "https://example.com/café?x=日本", null, true, 7L));
+        assertThat(table.get("missing")).isNull();
+
+        for (int i = 0; i < 20_000; i += 2) {
+            table.remove("k" + i);
+        }
+        assertThat(table.size()).isEqualTo(10_000);
+        assertThat(table.get("k10")).isNull();
+        assertThat(table.get("k11")).isNotNull();
+        assertThat(table.footprintBytes()).isLessThan(table.objectGraphBytes());
+    }
+
+    @Test
+    void evictsOnceFullAndRoundsExpiryUpToTheSecond() {
+        var table = new CompactRedirectTable(1_000, Duration.ofMinutes(10));
+        for (int i = 0; i < 5_000; i++) {
+            table.put(new RedirectEntry((long) i, "k" + i, "/relative/" + i,
+                    Instant.ofEpochMilli(1_900_000_000_001L), false, null));
+        }
+
+        assertThat(table.size()).isEqualTo(1_000);
+        assertThat(table.evictionCount()).isEqualTo(4_000);
+        assertThat(table.get("k4999").originalUrl()).isEqualTo("/relative/4999");
+        assertThat(table.get("k4999").expiresAt()).isEqualTo(Instant.ofEpochSecond(1_900_000_001L));
+    }
+
+    @Test
+    void packsKeysOfEveryLengthWithoutCollisions() {
+        for (String key : new String[]{"0", "00", "z", "zzzzzzzzzz", "aB3", "KcIq3qH"}) {
+            assertThat(ShortKeyPacker.unpack(ShortKeyPacker.pack(key))).isEqualTo(key);
+        }
+        assertThat(ShortKeyPacker.pack("0")).isNotEqualTo(ShortKeyPacker.pack("00"));
+        assertThat(ShortKeyPacker.pack("zzzzzzzzzzz")).isZero();
+        assertThat(ShortKeyPacker.pack("a-b")).isZero();
+    }
+}
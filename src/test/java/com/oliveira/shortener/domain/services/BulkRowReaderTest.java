@@ -0,0 +1,61 @@
+package com.oliveira.shortener.domain.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oliveira.shortener.domain.models.DataFormat;
+import com.oliveira.shortener.domain.models.BulkShortUrlRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkRowReaderTest {
+
+    @Test
+    void readsCsvWithHeaderQuotingAndOptionalColumns() throws IOException {
+        BulkRowReader reader = reader(DataFormat.CSV, """
+                original_url,is_private,expiration_in_days
+                https://example.com/a,true,7
+
+                "https://example.com/b?x=1,2"
+                "https://example.com/c,true
+                https://example.com/d,,soon
+                """);
+
+        assertThat(reader.next()).isEqualTo(new BulkShortUrlRow(2, "https://example.com/a", true, 7, null));
+        assertThat(reader.next()).isEqualTo(new BulkShortUrlRow(4, "https://example.com/b?x=1,2", null, null, null));
+        assertThat(reader.next().error()).isEqualTo("original_url is required");
+        assertThat(reader.next().error()).isEqualTo("expiration_in_days must be a number");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void readsNdjsonAndReportsMalformedLines() throws IOException {
+        BulkRowReader reader = reader(DataFormat.NDJSON, """
+                {"originalUrl": "https://example.com/a", "isPrivate": true, "expirationInDays": 3}
+                {"originalUrl": 
+                {"isPrivate": true}
+                """);
+
+        assertThat(reader.next()).isEqualTo(new BulkShortUrlRow(1, "https://example.com/a", true, 3, null));
+        assertThat(reader.next().error()).isEqualTo("Malformed JSON");
+        assertThat(reader.next().error()).isEqualTo("originalUrl is required");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void reportsOversizedLinesAsMalformedAndKeepsReading() throws IOException {
+        String longUrl = "https://example.com/" + "a".repeat(BulkRowReader.MAX_LINE_LENGTH);
+        BulkRowReader reader = reader(DataFormat.CSV, longUrl + "\r\nhttps://example.com/b\r\n");
+
+        assertThat(reader.next().error()).isEqualTo("Line is longer than 8192 characters");
+        assertThat(reader.next()).isEqualTo(new BulkShortUrlRow(2, "https://example.com/b", null, null, null));
+        assertThat(reader.next()).isNull();
+    }
+
+    private static BulkRowReader reader(DataFormat format, String body) {
+        return new BulkRowReader(new BufferedReader(new StringReader(body)), format, new ObjectMapper());
+    }
+}
@@ -0,0 +1,101 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.repository.ClickCountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClickCounterTest {
+    private final RecordingRepository repository = new RecordingRepository();
+    private final ClickCounter counter = new ClickCounter(repository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), properties());
+
+    @Test
+    void flushesTheClicksSinceTheLastFlushOnce() {
+        counter.increment(1L);
+        counter.increment(1L);
+        counter.increment(2L);
+
+        counter.flush();
+        counter.flush();
+        counter.increment(1L);
+        counter.flush();
+
+        assertThat(repository.flushes).containsExactly(
+                Map.of(1L, 2L, 2L, 1L),
+                Map.of(1L, 1L));
+    }
+
+    @Test
+    void requeuesAFailedFlushInFull() {
+        counter.increment(1L);
+        counter.increment(2L);
+        repository.failures = 1;
+
+        counter.flush();
+        counter.increment(1L);
+        counter.flush();
+
+        assertThat(repository.flushes).containsExactly(Map.of(1L, 2L, 2L, 1L));
+    }
+
+    @Test
+    void keepsCountingAfterAnIdleAdderWasDropped() {
+        counter.increment(1L);
+        counter.flush();
+        counter.flush();
+
+        counter.increment(1L);
+        counter.flush();
+
+        assertThat(repository.flushes).containsExactly(Map.of(1L, 1L), Map.of(1L, 1L));
+    }
+
+    @Test
+    void drainsPendingClicksOnStop() {
+        counter.start();
+        counter.increment(1L);
+
+        counter.stop();
+
+        assertThat(counter.isRunning()).isFalse();
+        assertThat(repository.flushes).containsExactly(Map.of(1L, 1L));
+    }
+
+    private static ApplicationProperties properties() {
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.clickCounter()).thenReturn(new ApplicationProperties.ClickCounter(Duration.ofHours(1), 500));
+        return properties;
+    }
+
+    private static class RecordingRepository extends ClickCountRepository {
+        private final List<Map<Long, Long>> flushes = new ArrayList<>();
+        private int failures;
+
+        RecordingRepository() {
+            super(null);
+        }
+
+        @Override
+        public void addClickCounts(List<Map.Entry<Long, Long>> deltas, int batchSize) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("database down");
+            }
+            Map<Long, Long> flush = new HashMap<>();
+            deltas.forEach(delta -> flush.put(delta.getKey(), delta.getValue()));
+            flushes.add(flush);
+        }
+    }
+}
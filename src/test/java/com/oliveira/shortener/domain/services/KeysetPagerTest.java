@@ -0,0 +1,98 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.domain.exceptions.InvalidPageCursorException;
+import com.oliveira.shortener.domain.models.PageCursor;
+import com.oliveira.shortener.domain.models.PageQuery;
+import com.oliveira.shortener.domain.models.PagedResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPagerTest {
+    private static final Comparator<Row> NEWEST_FIRST =
+            Comparator.comparing(Row::createdAt).thenComparing(Row::id).reversed();
+
+    // ids 1..7, where 3, 4 and 5 share one created_at
+    private final List<Row> rows = List.of(
+            row(1, 100), row(2, 200), row(3, 300), row(4, 300), row(5, 300), row(6, 400), row(7, 500));
+
+    @Test
+    void walksForwardAndBackThroughTiesOnCreatedAt() {
+        PagedResult<Row> first = page(null, null);
+        assertThat(ids(first)).containsExactly(7L, 6L, 5L);
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(first.hasNext()).isTrue();
+
+        PagedResult<Row> second = page(first.nextCursor(), null);
+        assertThat(ids(second)).containsExactly(4L, 3L, 2L);
+        assertThat(second.hasPrevious()).isTrue();
+
+        PagedResult<Row> last = page(second.nextCursor(), null);
+        assertThat(ids(last)).containsExactly(1L);
+        assertThat(last.hasNext()).isFalse();
+
+        PagedResult<Row> back = page(null, last.previousCursor());
+        assertThat(ids(back)).containsExactly(4L, 3L, 2L);
+        assertThat(back.hasNext()).isTrue();
+        assertThat(back.hasPrevious()).isTrue();
+
+        PagedResult<Row> backToFirst = page(null, back.previousCursor());
+        assertThat(ids(backToFirst)).containsExactly(7L, 6L, 5L);
+        assertThat(backToFirst.hasPrevious()).isFalse();
+        assertThat(backToFirst.totalElements()).isEqualTo(7);
+    }
+
+    @Test
+    void handlesEmptyListingsAndRejectsTamperedCursors() {
+        PagedResult<Row> empty = KeysetPager.page(new PageQuery(1, null, null, 3),
+                (cursor, limit) -> List.of(), (cursor, limit) -> List.of(), Row::cursor, null);
+        assertThat(empty.data()).isEmpty();
+        assertThat(empty.hasNext()).isFalse();
+        assertThat(empty.hasPrevious()).isFalse();
+        assertThat(empty.totalElements()).isEqualTo(-1);
+
+        assertThatThrownBy(() -> page("bm90LWEtY3Vyc29y", null)).isInstanceOf(InvalidPageCursorException.class);
+        assertThatThrownBy(() -> page(null, "%%%")).isInstanceOf(InvalidPageCursorException.class);
+    }
+
+    private PagedResult<Row> page(String after, String before) {
+        return KeysetPager.page(new PageQuery(1, after, before, 3), this::after, this::before, Row::cursor,
+                () -> rows.size());
+    }
+
+    private List<Row> after(PageCursor cursor, Limit limit) {
+        return rows.stream()
+                .filter(row -> NEWEST_FIRST.compare(row, new Row(cursor.createdAt(), cursor.id())) > 0)
+                .sorted(NEWEST_FIRST)
+                .limit(limit.max())
+                .toList();
+    }
+
+    private List<Row> before(PageCursor cursor, Limit limit) {
+        return rows.stream()
+                .filter(row -> NEWEST_FIRST.compare(row, new Row(cursor.createdAt(), cursor.id())) < 0)
+                .sorted(NEWEST_FIRST.reversed())
+                .limit(limit.max())
+                .toList();
+    }
+
+    private static List<Long> ids(PagedResult<Row> page) {
+        return page.data().stream().map(Row::id).toList();
+    }
+
+    private static Row row(long id, long createdAt) {
+        return new Row(Instant.ofEpochSecond(createdAt), id);
+    }
+
+    private record Row(Instant createdAt, Long id) {
+        PageCursor cursor() {
+            return new PageCursor(createdAt, id);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.events.ShortUrlCreatedEvent;
+import com.oliveira.shortener.domain.events.ShortUrlsDeletedEvent;
+import com.oliveira.shortener.domain.models.PageQuery;
+import com.oliveira.shortener.domain.models.PagedResult;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.models.ShortUrlDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicListingCacheTest {
+
+    private final PublicListingCache cache =
+            new PublicListingCache(new ApplicationProperties.PublicListing(true, 3, Duration.ofMinutes(1), false));
+    private final AtomicInteger loads = new AtomicInteger();
+    // every page links to the next one as "cursor-<n>"
+    private final Function<PageQuery, PagedResult<ShortUrlDto>> loader = query -> {
+        loads.incrementAndGet();
+        int next = query.after() == null ? 2 : Integer.parseInt(query.after().substring("cursor-".length())) + 1;
+        return PagedResult.ofCursors(List.of(), 10, -1, "cursor-" + next, query.after());
+    };
+
+    @Test
+    void cachesOnlyCursorsItHandedOutUpToCachedPages() {
+        String second = cache.get(firstPage(), loader).nextCursor();
+        String third = cache.get(after(second), loader).nextCursor();
+        String fourth = cache.get(after(third), loader).nextCursor();
+        cache.get(firstPage(), loader);
+        cache.get(after(second), loader);
+        cache.get(after(third), loader);
+        assertThat(loads).hasValue(3);
+
+        cache.get(after(fourth), loader);
+        cache.get(after(fourth), loader);
+        cache.get(after("cursor-99"), loader);
+        cache.get(after("cursor-99"), loader);
+        assertThat(loads).hasValue(7);
+    }
+
+    @Test
+    void dropsPagesAndCursorsWhenAPublicLinkIsCreatedOrAnyLinkIsDeleted() {
+        String second = cache.get(firstPage(), loader).nextCursor();
+        cache.get(after(second), loader);
+
+        cache.onShortUrlCreated(new ShortUrlCreatedEvent(entry(true)));
+        cache.get(firstPage(), loader);
+        assertThat(loads).hasValue(2);
+
+        cache.onShortUrlCreated(new ShortUrlCreatedEvent(entry(false)));
+        cache.get(after(second), loader);
+        cache.get(after(second), loader);
+        assertThat(loads).hasValue(4);
+
+        AtomicInteger invalidations = new AtomicInteger();
+        cache.onInvalidate(invalidations::incrementAndGet);
+        cache.get(firstPage(), loader);
+        cache.onShortUrlsDeleted(new ShortUrlsDeletedEvent(List.of("abc123")));
+        cache.get(firstPage(), loader);
+        assertThat(loads).hasValue(6);
+        assertThat(invalidations).hasValue(1);
+    }
+
+    private static PageQuery firstPage() {
+        return new PageQuery(1, null, null, 10);
+    }
+
+    private static PageQuery after(String cursor) {
+        return new PageQuery(1, cursor, null, 10);
+    }
+
+    private static RedirectEntry entry(boolean isPrivate) {
+        return new RedirectEntry(1L, "abc123", "https://example.com", null, isPrivate, 1L);
+    }
+}
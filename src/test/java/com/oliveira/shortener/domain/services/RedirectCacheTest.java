@@ -0,0 +1,91 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.events.ShortUrlsDeletedEvent;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.timing.LinkExpiryWheel;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedirectCacheTest {
+    private final LinkExpiryWheel expiryWheel = mock(LinkExpiryWheel.class);
+
+    @Test
+    void dropsDeletedLinksFromBothRepresentations() {
+        for (boolean compact : new boolean[]{false, true}) {
+            RedirectCache cache = cache(compact);
+            cache.put(entry("abc123", null));
+            cache.put(entry("def456", null));
+
+            cache.onShortUrlsDeleted(new ShortUrlsDeletedEvent(List.of("abc123")));
+
+            assertThat(cache.get("abc123")).as("compact=%s", compact).isNull();
+            assertThat(cache.get("def456")).as("compact=%s", compact).isNotNull();
+        }
+    }
+
+    @Test
+    void neverCachesExpiredLinks() {
+        RedirectCache cache = cache(false);
+
+        cache.put(entry("abc123", Instant.now().minusSeconds(1)));
+
+        assertThat(cache.get("abc123")).isNull();
+        verify(expiryWheel, never()).schedule(any(), any());
+    }
+
+    @Test
+    void schedulesLinksExpiringWithinTheTimeToLiveAndDropsThemWhenTheWheelFires() {
+        RedirectCache cache = cache(false);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> onExpired = ArgumentCaptor.forClass(Consumer.class);
+        verify(expiryWheel).onExpired(onExpired.capture());
+        Instant soon = Instant.now().plusSeconds(60);
+
+        cache.put(entry("abc123", soon));
+        cache.put(entry("def456", Instant.now().plus(Duration.ofDays(1))));
+
+        verify(expiryWheel).schedule("abc123", soon);
+        verify(expiryWheel, never()).schedule(eq("def456"), any());
+        onExpired.getValue().accept("abc123");
+        assertThat(cache.get("abc123")).isNull();
+        assertThat(cache.get("def456")).isNotNull();
+    }
+
+    @Test
+    void disabledCacheKeepsNothing() {
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.redirectCache())
+                .thenReturn(new ApplicationProperties.RedirectCache(false, 100, Duration.ofMinutes(10), false));
+        RedirectCache cache = new RedirectCache(properties, expiryWheel);
+
+        cache.put(entry("abc123", null));
+
+        assertThat(cache.get("abc123")).isNull();
+        assertThat(cache.stats().enabled()).isFalse();
+    }
+
+    private RedirectCache cache(boolean compact) {
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.redirectCache())
+                .thenReturn(new ApplicationProperties.RedirectCache(true, 100, Duration.ofMinutes(10), compact));
+        return new RedirectCache(properties, expiryWheel);
+    }
+
+    private static RedirectEntry entry(String shortKey, Instant expiresAt) {
+        return new RedirectEntry(1L, shortKey, "https://example.com/" + shortKey, expiresAt, false, null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.repository.ShortUrlStreamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedirectCacheWarmupTest {
+    private final ShortUrlStreamRepository streamRepository = mock(ShortUrlStreamRepository.class);
+    private final RedirectCache redirectCache = mock(RedirectCache.class);
+
+    @Test
+    void capsTopKAtTheCacheSizeSplitsOffTheRecentShareAndLoadsEachLinkOnce() {
+        when(redirectCache.isEnabled()).thenReturn(true);
+        when(redirectCache.maximumSize()).thenReturn(8L);
+        when(streamRepository.forEachHotRedirectEntry(any(), anyBoolean(), anyInt(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<RedirectEntry> consumer = invocation.getArgument(4);
+                    consumer.accept(entry("both"));
+                    consumer.accept(entry(invocation.<Boolean>getArgument(1) ? "new" : "hot"));
+                    return 2;
+                });
+
+        warmup(1000, 0.25, Duration.ofMinutes(1)).run(new DefaultApplicationArguments());
+
+        verify(streamRepository).forEachHotRedirectEntry(any(), eq(false), eq(6), any(), any());
+        verify(streamRepository).forEachHotRedirectEntry(any(), eq(true), eq(2), any(), any());
+        verify(redirectCache, times(3)).put(any());
+    }
+
+    @Test
+    void skipsTheRecentPassOnceTheTimeBudgetIsSpent() {
+        when(redirectCache.isEnabled()).thenReturn(true);
+        when(redirectCache.maximumSize()).thenReturn(100L);
+
+        warmup(10, 0.5, Duration.ZERO).run(new DefaultApplicationArguments());
+
+        verify(streamRepository).forEachHotRedirectEntry(any(), eq(false), eq(5), any(), any());
+        verify(streamRepository, never()).forEachHotRedirectEntry(any(), eq(true), anyInt(), any(), any());
+    }
+
+    @Test
+    void keepsStartingWhenTheDatabaseFails() {
+        when(redirectCache.isEnabled()).thenReturn(true);
+        when(redirectCache.maximumSize()).thenReturn(100L);
+        when(streamRepository.forEachHotRedirectEntry(any(), anyBoolean(), anyInt(), any(), any()))
+                .thenThrow(new IllegalStateException("query timed out"));
+
+        warmup(10, 0.5, Duration.ofMinutes(1)).run(new DefaultApplicationArguments());
+
+        verify(redirectCache, never()).put(any());
+    }
+
+    @Test
+    void doesNothingWithoutACache() {
+        when(redirectCache.isEnabled()).thenReturn(false);
+
+        warmup(10, 0.5, Duration.ofMinutes(1)).run(new DefaultApplicationArguments());
+
+        verify(streamRepository, never()).forEachHotRedirectEntry(any(), anyBoolean(), anyInt(), any(), any());
+    }
+
+    private RedirectCacheWarmup warmup(int topK, double recentFraction, Duration timeBudget) {
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.warmup()).thenReturn(new ApplicationProperties.Warmup(true, topK, recentFraction, timeBudget));
+        return new RedirectCacheWarmup(streamRepository, redirectCache, properties);
+    }
+
+    private static RedirectEntry entry(String shortKey) {
+        return new RedirectEntry(1L, shortKey, "https://example.com/" + shortKey, Instant.MAX, false, null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.oliveira.shortener.domain.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShortKeyCodecTest {
+
+    private final ShortKeyCodec codec = new ShortKeyCodec(42L);
+
+    @Test
+    void encodesToFixedWidthKeysThatDecodeBack() {
+        for (long counter : new long[]{0, 1, 2, 999, 1000, 123_456_789L, ShortKeyCodec.CAPACITY - 1}) {
+            String key = codec.encode(counter);
+            assertThat(key).hasSize(ShortKeyCodec.KEY_LENGTH).matches("[A-Za-z0-9]+");
+            assertThat(codec.decode(key)).isEqualTo(counter);
+        }
+    }
+
+    @Test
+    void consecutiveCountersProduceDistinctNonSequentialKeys() {
+        Set<String> keys = new HashSet<>();
+        String previous = null;
+        for (long counter = 1000; counter < 101_000; counter++) {
+            String key = codec.encode(counter);
+            assertThat(keys.add(key)).isTrue();
+            if (previous != null) {
+                assertThat(key.substring(0, 5)).isNotEqualTo(previous.substring(0, 5));
+            }
+            previous = key;
+        }
+    }
+}
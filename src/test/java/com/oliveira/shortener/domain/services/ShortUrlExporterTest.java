@@ -0,0 +1,83 @@
+package com.oliveira.shortener.domain.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.models.DataFormat;
+import com.oliveira.shortener.domain.repository.ShortUrlStreamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShortUrlExporterTest {
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ShortUrlExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(100))");
+        jdbcTemplate.execute("""
+                CREATE TABLE short_urls (id BIGINT PRIMARY KEY, short_key VARCHAR(10), original_url TEXT,
+                                         is_private BOOLEAN, expires_at TIMESTAMP, click_count BIGINT,
+                                         created_at TIMESTAMP, created_by BIGINT)
+                """);
+        jdbcTemplate.update("INSERT INTO users VALUES (7, 'Ana, \"the admin\"')");
+        String insert = "INSERT INTO short_urls VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, 1, "aaa111", "https://example.com/a?x=1,2", true, timestamp("2026-01-02T03:04:05Z"),
+                4, timestamp("2026-01-01T00:00:00Z"), 7);
+        jdbcTemplate.update(insert, 2, "bbb222", "https://example.com/b", false, null,
+                0, timestamp("2026-01-03T00:00:00Z"), null);
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.baseUrl()).thenReturn("http://sho.rt");
+        exporter = new ShortUrlExporter(new ShortUrlStreamRepository(dataSource), objectMapper, properties);
+    }
+
+    @Test
+    void quotesCsvFieldsWithCommasAndQuotesAndExportsOnlyTheOwnersLinks() throws IOException {
+        var out = new ByteArrayOutputStream();
+
+        exporter.export(7L, DataFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "id,shortKey,shortUrl,originalUrl,isPrivate,expiresAt,clickCount,createdAt,createdById,createdByName",
+                "1,aaa111,http://sho.rt/s/aaa111,\"https://example.com/a?x=1,2\",true,2026-01-02T03:04:05Z,4,"
+                        + "2026-01-01T00:00:00Z,7,\"Ana, \"\"the admin\"\"\"");
+    }
+
+    @Test
+    void writesNullNdjsonFieldsForMissingExpiryAndOwner() throws IOException {
+        var out = new ByteArrayOutputStream();
+
+        exporter.exportAll(DataFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode anonymous = objectMapper.readTree(lines[0]);
+        assertThat(anonymous.get("id").asLong()).isEqualTo(2);
+        assertThat(anonymous.get("expiresAt").isNull()).isTrue();
+        assertThat(anonymous.get("createdById").isNull()).isTrue();
+        assertThat(anonymous.get("createdByName").isNull()).isTrue();
+        JsonNode owned = objectMapper.readTree(lines[1]);
+        assertThat(owned.get("expiresAt").asText()).isEqualTo("2026-01-02T03:04:05Z");
+        assertThat(owned.get("createdById").asLong()).isEqualTo(7);
+    }
+
+    private static Timestamp timestamp(String instant) {
+        return Timestamp.from(Instant.parse(instant));
+    }
+}
@@ -0,0 +1,88 @@
+package com.oliveira.shortener.domain.services;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlExistenceValidatorTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private UrlExistenceValidator validator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 200));
+        server.createContext("/missing", exchange -> respond(exchange, 404));
+        server.createContext("/no-head", exchange ->
+                respond(exchange, "HEAD".equals(exchange.getRequestMethod()) ? 405 : 200));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        validator = new UrlExistenceValidator(new ApplicationProperties.UrlValidation(
+                Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofMinutes(1), Duration.ofMinutes(1), 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validator.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void acceptsUrlAnsweringHead() {
+        assertThat(validator.isUrlExists(baseUrl + "/ok")).isTrue();
+        assertThat(requests).containsExactly("HEAD /ok");
+    }
+
+    @Test
+    void fallsBackToGetWhenHeadIsRejected() {
+        assertThat(validator.isUrlExists(baseUrl + "/no-head")).isTrue();
+        assertThat(requests).containsExactly("HEAD /no-head", "GET /no-head");
+    }
+
+    @Test
+    void rejectsMissingUrlAndCachesTheResult() {
+        assertThat(validator.isUrlExists(baseUrl + "/missing")).isFalse();
+        assertThat(validator.isUrlExists(baseUrl.replace("http", "HTTP") + "/missing#fragment")).isFalse();
+        assertThat(requests).containsExactly("HEAD /missing", "GET /missing");
+    }
+
+    @Test
+    void cachesPositiveResultsPerNormalizedUrl() {
+        assertThat(validator.isUrlExists(baseUrl + "/ok")).isTrue();
+        assertThat(validator.isUrlExists(baseUrl + "/ok#top")).isTrue();
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void remembersUnreachableHosts() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        String unreachable = "http://127.0.0.1:" + closedPort;
+        assertThat(validator.isUrlExists(unreachable + "/a")).isFalse();
+        assertThat(validator.isUrlExists(unreachable + "/b")).isFalse();
+        assertThat(validator.isUrlExists("not a url")).isFalse();
+    }
+
+    private void respond(HttpExchange exchange, int status) throws IOException {
+        requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+}
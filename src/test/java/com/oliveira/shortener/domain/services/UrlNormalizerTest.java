@@ -0,0 +1,26 @@
+package com.oliveira.shortener.domain.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlNormalizerTest {
+
+    @Test
+    void canonicalizesCaseDefaultPortsTrailingSlashesAndQueryOrder() {
+        assertThat(UrlNormalizer.canonicalize(" HTTPS://Example.COM:443/Path/?b=2&a=1&b=1#Top "))
+                .isEqualTo("https://example.com/Path?a=1&b=2&b=1#Top");
+        assertThat(UrlNormalizer.canonicalize("http://example.com")).isEqualTo("http://example.com/");
+        assertThat(UrlNormalizer.canonicalize("http://example.com:8080/")).isEqualTo("http://example.com:8080/");
+        assertThat(UrlNormalizer.canonicalize("not a url")).isEqualTo("not a url");
+    }
+
+    @Test
+    void equivalentUrlsShareAContentHash() {
+        assertThat(UrlNormalizer.contentHash("http://Example.com:80/a/?y=1&x=2"))
+                .hasSize(32)
+                .isEqualTo(UrlNormalizer.contentHash("http://example.com/a?x=2&y=1"));
+        assertThat(UrlNormalizer.contentHash("http://example.com/a"))
+                .isNotEqualTo(UrlNormalizer.contentHash("https://example.com/a"));
+    }
+}
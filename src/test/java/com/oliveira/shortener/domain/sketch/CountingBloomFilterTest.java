@@ -0,0 +1,61 @@
+package com.oliveira.shortener.domain.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void forgetsRemovedKeysButNeverAddedOnes() {
+        var filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("key" + i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            filter.remove("key" + i);
+        }
+
+        for (int i = 1; i < 10_000; i += 2) {
+            assertThat(filter.mightContain("key" + i)).isTrue();
+        }
+        int stillReported = 0;
+        for (int i = 0; i < 10_000; i += 2) {
+            stillReported += filter.mightContain("key" + i) ? 1 : 0;
+        }
+        assertThat(stillReported).isLessThan(250);
+    }
+
+    @Test
+    void saturatedCountersAreNeverDecremented() {
+        var filter = new CountingBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20; i++) {
+            filter.add("hot");
+        }
+        for (int i = 0; i < 20; i++) {
+            filter.remove("hot");
+        }
+        // the key's counters stopped at 15, so removals cannot tell how many adds there were: keep it
+        assertThat(filter.mightContain("hot")).isTrue();
+
+        filter.add("cold");
+        filter.remove("cold");
+        filter.remove("cold");
+        assertThat(filter.mightContain("cold")).isFalse();
+    }
+
+    @Test
+    void staysNearTheConfiguredFalsePositiveRate() {
+        var filter = new CountingBloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("in" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            falsePositives += filter.mightContain("out" + i) ? 1 : 0;
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+        assertThat(filter.memoryBytes()).isEqualTo((filter.counters() / 16) * Long.BYTES);
+    }
+}
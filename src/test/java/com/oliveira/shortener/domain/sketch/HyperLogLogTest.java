@@ -0,0 +1,60 @@
+package com.oliveira.shortener.domain.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesDistinctValuesRegardlessOfRepeats() {
+        for (int distinct : new int[]{0, 10, 1_000, 100_000}) {
+            var sketch = new HyperLogLog(12);
+            for (int repeat = 0; repeat < 3; repeat++) {
+                for (long i = 0; i < distinct; i++) {
+                    sketch.add(Hashing.hash64(i));
+                }
+            }
+            // about 1.6% standard error at precision 12, so allow four of them
+            assertThat((double) sketch.estimate()).isCloseTo(distinct, within(distinct * 0.065 + 1));
+        }
+    }
+
+    @Test
+    void mergesIntoTheSketchOfTheUnion() {
+        var monday = new HyperLogLog(12);
+        var tuesday = new HyperLogLog(12);
+        var both = new HyperLogLog(12);
+        for (long i = 0; i < 30_000; i++) {
+            monday.add(Hashing.hash64(i));
+            both.add(Hashing.hash64(i));
+        }
+        for (long i = 20_000; i < 50_000; i++) {
+            tuesday.add(Hashing.hash64(i));
+            both.add(Hashing.hash64(i));
+        }
+
+        HyperLogLog merged = HyperLogLog.fromBytes(monday.toBytes());
+        merged.merge(tuesday);
+
+        assertThat(merged.toBytes()).isEqualTo(both.toBytes());
+        assertThat(merged.toBytes()).hasSize(4097);
+    }
+
+    @Test
+    void foldsDownToTheLowerPrecisionWhenMerging() {
+        var fine = new HyperLogLog(14);
+        var coarse = new HyperLogLog(10);
+        var expected = new HyperLogLog(10);
+        for (long i = 0; i < 40_000; i++) {
+            (i % 2 == 0 ? fine : coarse).add(Hashing.hash64(i));
+            expected.add(Hashing.hash64(i));
+        }
+
+        fine.merge(coarse);
+
+        assertThat(fine.precision()).isEqualTo(10);
+        assertThat(fine.toBytes()).isEqualTo(expected.toBytes());
+    }
+}
@@ -0,0 +1,60 @@
+package com.oliveira.shortener.domain.snapshot;
+
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedirectSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsEveryWrittenKeyWithItsUrlExpiryAndOwner() throws IOException {
+        Instant expiresAt = Instant.parse("2030-01-01T00:00:00.123Z");
+        Path file = directory.resolve("redirects.snap");
+        try (RedirectSnapshotWriter writer = new RedirectSnapshotWriter(directory)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.add(i, "k" + i, "https://example.com/" + i, null, false, null);
+            }
+            writer.add(5000, "uni", "https://example.com/café/日本", expiresAt, true, 42L);
+            assertThat(writer.add(5001, "waytoolongkey", "https://example.com", null, false, null)).isFalse();
+            writer.writeTo(file, Instant.ofEpochMilli(1_000));
+        }
+        assertThat(Files.list(directory)).containsExactly(file);
+
+        RedirectSnapshot snapshot = RedirectSnapshot.open(file);
+
+        assertThat(snapshot.size()).isEqualTo(1001);
+        assertThat(snapshot.createdAt()).isEqualTo(Instant.ofEpochMilli(1_000));
+        for (int i = 0; i < 1000; i++) {
+            assertThat(snapshot.find("k" + i))
+                    .isEqualTo(new RedirectEntry((long) i, "k" + i, "https://example.com/" + i, null, false, null));
+        }
+        assertThat(snapshot.find("uni")).isEqualTo(new RedirectEntry(5000L, "uni",
+                "https://example.com/café/日本", expiresAt, true, 42L));
+        assertThat(snapshot.find("missing")).isNull();
+        assertThat(snapshot.find("k10000")).isNull();
+        assertThat(snapshot.find("waytoolongkey")).isNull();
+    }
+
+    @Test
+    void anEmptySnapshotFindsNothing() throws IOException {
+        Path file = directory.resolve("empty.snap");
+        try (RedirectSnapshotWriter writer = new RedirectSnapshotWriter(directory)) {
+            writer.writeTo(file, Instant.now());
+        }
+
+        RedirectSnapshot snapshot = RedirectSnapshot.open(file);
+
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.find("abc")).isNull();
+    }
+}
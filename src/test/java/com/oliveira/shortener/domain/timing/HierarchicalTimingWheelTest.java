@@ -0,0 +1,48 @@
+package com.oliveira.shortener.domain.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesEveryTimerExactlyAtItsDeadlineAcrossLevels() {
+        long start = 1_000_003L;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(start);
+        Random random = new Random(7);
+        int timers = 5_000;
+        for (int i = 0; i < timers; i++) {
+            long deadline = start + 1 + (long) (random.nextDouble() * 300_000);
+            wheel.schedule(deadline, deadline);
+        }
+        wheel.schedule(start + 70_000_000L, start + 70_000_000L);
+
+        List<Long> fired = new ArrayList<>();
+        for (long tick = start + 1; tick <= start + 300_001; tick++) {
+            long now = tick;
+            wheel.advanceTo(tick, deadline -> {
+                assertThat(deadline).isEqualTo(now);
+                fired.add(deadline);
+            });
+        }
+        assertThat(fired).hasSize(timers);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advanceTo(start + 70_000_000L, fired::add);
+        assertThat(fired).hasSize(timers + 1).last().isEqualTo(start + 70_000_000L);
+    }
+
+    @Test
+    void overdueTimersFireOnTheNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100);
+        wheel.schedule("late", 10);
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(101, fired::add);
+        assertThat(fired).containsExactly("late");
+    }
+}
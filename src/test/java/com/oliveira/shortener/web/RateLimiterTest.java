@@ -0,0 +1,44 @@
+package com.oliveira.shortener.web;
+
+import com.oliveira.shortener.web.RateLimiter.EndpointClass;
+import com.oliveira.shortener.web.RateLimiter.Limit;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(-5 * SECOND);
+    private final RateLimiter rateLimiter = new RateLimiter(
+            Map.of(EndpointClass.CREATE, new Limit(3, 1)), 1000, Duration.ofMinutes(1), clock::get);
+
+    @Test
+    void allowsABurstOfCapacityThenRefillsAtTheConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire(EndpointClass.CREATE, "address:10.0.0.1")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire(EndpointClass.CREATE, "address:10.0.0.1")).isEqualTo(SECOND);
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(rateLimiter.tryAcquire(EndpointClass.CREATE, "address:10.0.0.1")).isEqualTo(SECOND / 2);
+        clock.addAndGet(SECOND / 2);
+        assertThat(rateLimiter.tryAcquire(EndpointClass.CREATE, "address:10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire(EndpointClass.CREATE, "address:10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void keepsSeparateBucketsPerClientAndLeavesUnlimitedClassesAlone() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(EndpointClass.CREATE, "user:1");
+        }
+        assertThat(rateLimiter.tryAcquire(EndpointClass.CREATE, "user:1")).isPositive();
+        assertThat(rateLimiter.tryAcquire(EndpointClass.CREATE, "user:2")).isZero();
+        assertThat(rateLimiter.tryAcquire(EndpointClass.REDIRECT, "user:1")).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+package com.oliveira.shortener.web;
+
+import com.oliveira.shortener.ApplicationProperties;
+import com.oliveira.shortener.domain.analytics.ClickAnalytics;
+import com.oliveira.shortener.domain.models.AuthenticatedUser;
+import com.oliveira.shortener.domain.models.RedirectEntry;
+import com.oliveira.shortener.domain.models.Role;
+import com.oliveira.shortener.domain.services.PrincipalInvalidations;
+import com.oliveira.shortener.domain.services.ShortUrlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RedirectFilterTest {
+    private final ShortUrlService shortUrlService = mock(ShortUrlService.class);
+    private final ClickAnalytics clickAnalytics = mock(ClickAnalytics.class);
+    private final PrincipalInvalidations principalInvalidations = new PrincipalInvalidations(new ServerProperties());
+    private final RedirectFilter filter = new RedirectFilter(shortUrlService, clickAnalytics, principalInvalidations,
+            new ApplicationProperties.Redirect(true, 301, "public, max-age=300"));
+
+    @Test
+    void redirectsWithTheConfiguredStatusAndCachingAndRecordsTheClick() throws Exception {
+        RedirectEntry entry = new RedirectEntry(1L, "abc123", "https://example.com/a", null, false, null);
+        when(shortUrlService.accessShortUrl("abc123", null)).thenReturn(Optional.of(entry));
+        var request = new MockHttpServletRequest("GET", "/s/abc123");
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(301);
+        assertThat(response.getHeader("Location")).isEqualTo("https://example.com/a");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("public, max-age=300");
+        assertThat(chain.getRequest()).isNull();
+        verify(clickAnalytics).publish(entry, request);
+    }
+
+    @Test
+    void keepsPrivateLinksOutOfSharedCachesAndResolvesTheSessionUser() throws Exception {
+        RedirectEntry entry = new RedirectEntry(2L, "priv", "https://example.com/p", null, true, 9L);
+        when(shortUrlService.accessShortUrl("priv", 9L)).thenReturn(Optional.of(entry));
+        var user = new AuthenticatedUser(9L, "ana@example.com", "hash", "Ana", Role.ROLE_USER);
+        var request = new MockHttpServletRequest("GET", "/s/priv");
+        request.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities())));
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(301);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("private, no-store");
+    }
+
+    @Test
+    void treatsASessionWhoseUserChangedSinceAsAnonymous() throws Exception {
+        var user = new AuthenticatedUser(9L, "ana@example.com", "hash", "Ana", Role.ROLE_USER);
+        principalInvalidations.invalidate(9L);
+        when(shortUrlService.accessShortUrl(eq("priv"), isNull())).thenReturn(Optional.empty());
+        var request = new MockHttpServletRequest("GET", "/s/priv");
+        request.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities())));
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(404);
+        verify(shortUrlService, never()).accessShortUrl("priv", 9L);
+    }
+
+    @Test
+    void neverLetsA404BeCached() throws Exception {
+        when(shortUrlService.accessShortUrl(eq("missing"), isNull())).thenReturn(Optional.empty());
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("HEAD", "/s/missing"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-store");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        verify(clickAnalytics, never()).publish(any(), any());
+    }
+
+    @Test
+    void leavesAnythingButAPlainKeyToMvc() throws Exception {
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{
+                new MockHttpServletRequest("POST", "/s/abc123"),
+                new MockHttpServletRequest("GET", "/s/abc-123"),
+                new MockHttpServletRequest("GET", "/s/abcdefghijk"),
+                new MockHttpServletRequest("GET", "/s/"),
+                new MockHttpServletRequest("GET", "/short-urls")}) {
+            var chain = new MockFilterChain();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            assertThat(chain.getRequest()).isSameAs(request);
+        }
+        verifyNoInteractions(shortUrlService, clickAnalytics);
+    }
+}
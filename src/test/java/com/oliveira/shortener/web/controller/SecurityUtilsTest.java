@@ -0,0 +1,44 @@
+package com.oliveira.shortener.web.controller;
+
+import com.oliveira.shortener.domain.models.AuthenticatedUser;
+import com.oliveira.shortener.domain.models.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityUtilsTest {
+    private final SecurityUtils securityUtils = new SecurityUtils();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsTheUserFromThePrincipal() {
+        var user = new AuthenticatedUser(7L, "ana@example.com", "hash", "Ana", Role.ROLE_ADMIN);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+
+        assertThat(securityUtils.getCurrentUser()).isSameAs(user);
+        assertThat(securityUtils.getCurrentUserId()).isEqualTo(7L);
+    }
+
+    @Test
+    void hasNoUserForAnonymousOrUnauthenticatedRequests() {
+        assertThat(securityUtils.getCurrentUserId()).isNull();
+
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        assertThat(securityUtils.getCurrentUser()).isNull();
+
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.unauthenticated(
+                new AuthenticatedUser(7L, "ana@example.com", "hash", "Ana", Role.ROLE_USER), "secret"));
+        assertThat(securityUtils.getCurrentUserId()).isNull();
+    }
+}